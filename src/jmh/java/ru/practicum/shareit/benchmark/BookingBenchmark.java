@@ -0,0 +1,53 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingBenchmark {
+    private static final AtomicInteger SAVED = new AtomicInteger();
+
+    @Benchmark
+    public Booking save(ShareItContext context) {
+        int n = SAVED.getAndIncrement();
+        LocalDateTime start = LocalDateTime.now().plusYears(10).plusHours(2L * (n / context.availableItemIds.size()));
+        BookingSaveDto dto = new BookingSaveDto(context.availableItemId(n), start, start.plusHours(1));
+        return context.bean(BookingService.class).save(context.userId(n), dto);
+    }
+
+    @Benchmark
+    public boolean conflictCheckIntervalIndex(ShareItContext context) {
+        LocalDateTime start = randomHotItemWindow(context);
+        return context.bean(BookingIntervalIndex.class).hasOverlap(context.hotItemId, start, start.plusMinutes(90));
+    }
+
+    @Benchmark
+    public Boolean conflictCheckQuery(ShareItContext context) {
+        LocalDateTime start = randomHotItemWindow(context);
+        return context.bean(BookingRepository.class).existsByItemAndPeriod(context.hotItemId, start, start.plusMinutes(90));
+    }
+
+    private static LocalDateTime randomHotItemWindow(ShareItContext context) {
+        long minutes = ThreadLocalRandom.current().nextLong(2L * 60 * context.hotItemBookings);
+        return context.hotItemStart.plusMinutes(minutes);
+    }
+}
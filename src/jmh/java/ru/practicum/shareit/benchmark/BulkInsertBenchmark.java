@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Insert throughput of the batch booking endpoint, in bookings per second, with and without JDBC batching.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkInsertBenchmark {
+    private static final int BATCH = 200;
+    private static final AtomicInteger SAVED = new AtomicInteger();
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResultDto> saveAll(ShareItBatchingContext context) {
+        int first = SAVED.getAndAdd(BATCH);
+        LocalDateTime base = LocalDateTime.now().plusYears(10);
+        List<BookingSaveDto> bookings = new ArrayList<>(BATCH);
+        for (int n = first; n < first + BATCH; n++) {
+            LocalDateTime start = base.plusHours(2L * (n / context.availableItemIds.size()));
+            bookings.add(new BookingSaveDto(context.availableItemId(n), start, start.plusHours(1)));
+        }
+        return context.bean(BookingService.class).saveAll(context.userId(first), bookings);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform and virtual request threads under more concurrent clients than the connection
+ * pool has connections. Throughput mode gives requests per second, sample time mode gives the
+ * latency distribution including p0.99; responses rejected by the bulkhead count as completed calls
+ * and show up as 503 in the returned status codes.
+ */
+@Fork(1)
+@Threads(256)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrencyModeBenchmark {
+    @Benchmark
+    public int findItem(ShareItServer server) throws IOException, InterruptedException {
+        long itemId = server.itemId(ThreadLocalRandom.current().nextInt(server.itemIds.size()));
+        return get(server, "/items/" + itemId, server.userId(0));
+    }
+
+    @Benchmark
+    public int findBookings(ShareItServer server) throws IOException, InterruptedException {
+        long userId = server.userId(ThreadLocalRandom.current().nextInt(server.users));
+        return get(server, "/bookings?size=20", userId);
+    }
+
+    private static int get(ShareItServer server, String path, long userId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(server.uri(path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDateDto;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemBenchmark {
+    /**
+     * The owner dashboard query before it was rewritten, kept for comparison: two correlated
+     * subqueries per item and no comments.
+     */
+    private static final String CORRELATED_DASHBOARD =
+            "SELECT new ru.practicum.shareit.item.dto.ItemWithBookingDateDto(i.id, i.name, i.description, i.available," +
+            "(SELECT MAX(b.start) FROM Booking b WHERE b.item.id = i.id AND b.end < CURRENT_TIMESTAMP)," +
+            "(SELECT MIN(b.start) FROM Booking b WHERE b.item.id = i.id AND b.start > CURRENT_TIMESTAMP)) " +
+            "FROM Item i JOIN i.owner u WHERE u.id = ?1 ";
+
+    @Benchmark
+    public List<ItemDto> search(ShareItContext context) {
+        String text = ShareItContext.WORDS[ThreadLocalRandom.current().nextInt(ShareItContext.WORDS.length)];
+        return context.bean(ItemService.class).search(text, null, null, OffsetPageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<ItemDto> searchFreeBetween(ShareItContext context) {
+        String text = ShareItContext.WORDS[ThreadLocalRandom.current().nextInt(ShareItContext.WORDS.length)];
+        LocalDateTime start = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(context.bookingsPerItem / 2 + 1));
+        return context.bean(ItemService.class).search(text, start, start.plusDays(2), OffsetPageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDateDto> allItemsFromUser(ShareItContext context) {
+        long userId = context.userId(ThreadLocalRandom.current().nextInt(context.users));
+        return context.bean(ItemService.class).allItemsFromUser(userId, Pageable.unpaged(), tag -> false);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDateDto> allItemsFromUserCorrelated(ShareItContext context) {
+        long userId = context.userId(ThreadLocalRandom.current().nextInt(context.users));
+        EntityManager entityManager = context.bean(EntityManagerFactory.class).createEntityManager();
+        try {
+            return entityManager.createQuery(CORRELATED_DASHBOARD, ItemWithBookingDateDto.class)
+                    .setParameter(1, userId)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public ItemWithCommentsDto findById(ShareItContext context) {
+        long itemId = context.itemId(ThreadLocalRandom.current().nextInt(context.itemIds.size()));
+        return context.bean(ItemService.class).findById(itemId, tag -> false);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * {@link ShareItContext} with a configurable JDBC batch size; a size of 1 sends every insert on its own.
+ */
+@State(Scope.Benchmark)
+public class ShareItBatchingContext extends ShareItContext {
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    @Override
+    List<String> arguments() {
+        List<String> arguments = super.arguments();
+        arguments.add("--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        return arguments;
+    }
+}
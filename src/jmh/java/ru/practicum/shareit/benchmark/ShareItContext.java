@@ -0,0 +1,192 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Boots the application without the web layer on an in-memory H2 database and seeds it once per trial.
+ * Dataset size is set with JMH parameters, e.g. {@code -p users=10000 -p bookingsPerItem=50}.
+ */
+@State(Scope.Benchmark)
+public class ShareItContext {
+    static final String[] WORDS = {"drill", "ladder", "saw", "hammer", "tent", "bike", "kayak", "projector",
+            "camera", "tripod", "mixer", "vacuum", "heater", "jack", "grill", "speaker"};
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param("1000")
+    public int users;
+
+    @Param("5")
+    public int itemsPerUser;
+
+    @Param("20")
+    public int bookingsPerItem;
+
+    @Param("3")
+    public int commentsPerItem;
+
+    @Param("10000")
+    public int hotItemBookings;
+
+    ConfigurableApplicationContext context;
+    List<Long> userIds;
+    List<Long> itemIds;
+    List<Long> availableItemIds;
+    long hotItemId;
+    LocalDateTime hotItemStart;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = application().run(arguments().toArray(String[]::new));
+        transactionTemplate = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        seed();
+        bean(UserServiceImpl.class).rebuildEmailFilter();
+        if (bean(ItemSearchEngine.class) instanceof InMemoryItemSearchEngine searchEngine) {
+            searchEngine.rebuild();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Settings are passed as command line arguments so that they take precedence over application.properties.
+     */
+    List<String> arguments() {
+        return new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:shareit-benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.ru.practicum.shareit=WARN"));
+    }
+
+    SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ShareItApp.class).web(WebApplicationType.NONE);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    long userId(int index) {
+        return userIds.get(Math.floorMod(index, userIds.size()));
+    }
+
+    long itemId(int index) {
+        return itemIds.get(Math.floorMod(index, itemIds.size()));
+    }
+
+    long availableItemId(int index) {
+        return availableItemIds.get(Math.floorMod(index, availableItemIds.size()));
+    }
+
+    private void seed() {
+        UserRepository userRepository = bean(UserRepository.class);
+        ItemRepository itemRepository = bean(ItemRepository.class);
+        BookingRepository bookingRepository = bean(BookingRepository.class);
+        CommentRepository commentRepository = bean(CommentRepository.class);
+
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setName("user" + i);
+            user.setEmail("user" + i + "@shareit.test");
+            newUsers.add(user);
+        }
+        userIds = saveInChunks(newUsers, userRepository::saveAll).stream().map(User::getId).toList();
+
+        List<Item> newItems = new ArrayList<>();
+        for (int i = 0; i < users * itemsPerUser; i++) {
+            Item item = new Item();
+            item.setName(WORDS[i % WORDS.length] + " " + i);
+            item.setDescription("A " + WORDS[(i * 7) % WORDS.length] + " in good condition, item " + i);
+            item.setAvailable(i % 10 != 0);
+            item.setOwner(userRepository.getReferenceById(userIds.get(i / itemsPerUser)));
+            newItems.add(item);
+        }
+        List<Item> savedItems = saveInChunks(newItems, itemRepository::saveAll);
+        itemIds = savedItems.stream().map(Item::getId).toList();
+        availableItemIds = savedItems.stream().filter(Item::getAvailable).map(Item::getId).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> newBookings = new ArrayList<>();
+        List<Comment> newComments = new ArrayList<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            Item item = itemRepository.getReferenceById(itemIds.get(i));
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(j - bookingsPerItem / 2L);
+                User booker = userRepository.getReferenceById(userId(i + j + 1));
+                newBookings.add(new Booking(start, start.plusHours(12), item, booker, status(j)));
+            }
+            for (int j = 0; j < commentsPerItem; j++) {
+                Comment comment = new Comment();
+                comment.setText("Worked fine, comment " + j);
+                comment.setItem(item);
+                comment.setUser(userRepository.getReferenceById(userId(i + j + 1)));
+                comment.setCreated(LocalDate.now());
+                newComments.add(comment);
+            }
+        }
+
+        hotItemId = itemIds.get(1);
+        hotItemStart = now.plusYears(1);
+        Item hotItem = itemRepository.getReferenceById(hotItemId);
+        for (int j = 0; j < hotItemBookings; j++) {
+            LocalDateTime start = hotItemStart.plusHours(2L * j);
+            User booker = userRepository.getReferenceById(userId(j));
+            newBookings.add(new Booking(start, start.plusHours(1), hotItem, booker, BookingStatus.APPROVED));
+        }
+
+        saveInChunks(newBookings, bookingRepository::saveAll);
+        saveInChunks(newComments, commentRepository::saveAll);
+    }
+
+    private <T> List<T> saveInChunks(List<T> entities, Function<List<T>, List<T>> saveAll) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK_SIZE) {
+            List<T> chunk = entities.subList(from, Math.min(from + CHUNK_SIZE, entities.size()));
+            saved.addAll(transactionTemplate.execute(status -> saveAll.apply(chunk)));
+        }
+        return saved;
+    }
+
+    private static BookingStatus status(int index) {
+        if (index % 5 == 0) {
+            return BookingStatus.REJECTED;
+        }
+        return index % 3 == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED;
+    }
+}
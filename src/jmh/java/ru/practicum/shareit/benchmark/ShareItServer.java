@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.List;
+
+/**
+ * Same dataset as {@link ShareItContext}, served over HTTP on a random port, with request handling on
+ * platform or virtual threads.
+ */
+@State(Scope.Benchmark)
+public class ShareItServer extends ShareItContext {
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Override
+    List<String> arguments() {
+        List<String> arguments = super.arguments();
+        arguments.add("--server.port=0");
+        arguments.add("--spring.threads.virtual.enabled=" + virtualThreads);
+        arguments.add("--shareit.tracing.sample-rate=0");
+        return arguments;
+    }
+
+    @Override
+    SpringApplicationBuilder application() {
+        return super.application().web(WebApplicationType.SERVLET);
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + path);
+    }
+}
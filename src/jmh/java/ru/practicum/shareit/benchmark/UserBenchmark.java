@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserBenchmark {
+    private static final AtomicLong SAVED = new AtomicLong();
+
+    @Benchmark
+    public User save(ShareItContext context) {
+        long n = SAVED.getAndIncrement();
+        User user = new User();
+        user.setName("benchmark" + n);
+        user.setEmail("benchmark" + n + "@shareit.test");
+        return context.bean(UserService.class).save(user);
+    }
+}
@@ -1,68 +1,178 @@
 package ru.practicum.shareit.booking.controller;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Slf4j
+@Validated
 @RestController
-@RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String X_NEXT_CURSOR = "X-Next-Cursor";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final int streamBatchSize;
+
+    public BookingController(BookingService bookingService,
+                             ObjectMapper objectMapper,
+                             @Value("${shareit.bookings.stream.batch-size:500}") int streamBatchSize) {
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.streamBatchSize = streamBatchSize;
+    }
 
     @PostMapping
     public Booking save(@RequestHeader(X_SHARER_USER_ID) Long userId,
                         @RequestBody BookingSaveDto bookingSaveDto) {
-        log.info("BookingController: save is called by userId={}, itemId={}", userId, bookingSaveDto.getItemId());
+        log.debug("BookingController: save is called by userId={}, itemId={}", userId, bookingSaveDto.getItemId());
         Booking booking = bookingService.save(userId, bookingSaveDto);
-        log.info("BookingController: booking saved successfully for userId={}, bookingId={}", userId, booking.getId());
+        log.debug("BookingController: booking saved successfully for userId={}, bookingId={}", userId, booking.getId());
         return booking;
     }
 
+    @PostMapping("batch")
+    public List<BookingBatchResultDto> saveAll(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                               @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<BookingSaveDto> bookingSaveDtos) {
+        log.debug("BookingController: saveAll is called by userId={} with {} bookings", userId, bookingSaveDtos.size());
+        List<BookingBatchResultDto> results = bookingService.saveAll(userId, bookingSaveDtos);
+        log.debug("BookingController: saveAll finished for userId={}", userId);
+        return results;
+    }
+
     @PatchMapping("{bookingId}")
     public Booking responseToRequest(@RequestHeader(X_SHARER_USER_ID) long userId,
                                      @PathVariable long bookingId,
                                      @RequestParam boolean approved) {
-        log.info("BookingController: responseToRequest is called by userId={} for bookingId={}, approved={}", userId, bookingId, approved);
+        log.debug("BookingController: responseToRequest is called by userId={} for bookingId={}, approved={}", userId, bookingId, approved);
         Booking booking = bookingService.responseToRequest(userId, bookingId, approved);
-        log.info("BookingController: responseToRequest successful for bookingId={}, newStatus={}", bookingId, booking.getStatus());
+        log.debug("BookingController: responseToRequest successful for bookingId={}, newStatus={}", bookingId, booking.getStatus());
         return booking;
     }
 
     @GetMapping("{bookingId}")
     public BookingDto findBookingById(@RequestHeader(X_SHARER_USER_ID) long bookerId,
                                       @PathVariable long bookingId) {
-        log.info("BookingController: findBookingById is called by userId={} for bookingId={}", bookerId, bookingId);
+        log.debug("BookingController: findBookingById is called by userId={} for bookingId={}", bookerId, bookingId);
         BookingDto bookingDto = bookingService.findBookingById(bookerId, bookingId);
-        log.info("BookingController: findBookingById successful for bookingId={}", bookingId);
+        log.debug("BookingController: findBookingById successful for bookingId={}", bookingId);
         return bookingDto;
     }
 
     @GetMapping
-    public List<Booking> findAllForUser(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                        @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("BookingController: findAllForUser is called by userId={} with state={}", userId, state);
-        List<Booking> bookingList = bookingService.findAllForUser(userId, state);
-        log.info("BookingController: findAllForUser successful for userId={}, totalBookings={}", userId, bookingList.size());
-        return bookingList;
+    public ResponseEntity<List<BookingDto>> findAllForUser(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                           @RequestParam(defaultValue = "ALL") BookingState state,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) int size) {
+        log.debug("BookingController: findAllForUser is called by userId={} with state={}, cursor={}, size={}", userId, state, cursor, size);
+        List<BookingDto> bookingList = bookingService.findAllForUser(userId, state, from, to, decodeCursor(cursor), size);
+        log.debug("BookingController: findAllForUser successful for userId={}, totalBookings={}", userId, bookingList.size());
+        return toPage(bookingList, size);
     }
 
     @GetMapping("owner")
-    public List<Booking> findReservations(@RequestHeader(X_SHARER_USER_ID) long userId,
-                                          @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("BookingController: findReservations is called by ownerId={} with state={}", userId, state);
-        List<Booking> reservationsList = bookingService.findReservations(userId, state);
-        log.info("BookingController: findReservations successful for ownerId={}, totalReservations={}", userId, reservationsList.size());
-        return reservationsList;
+    public ResponseEntity<List<BookingDto>> findReservations(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                             @RequestParam(defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) int size) {
+        log.debug("BookingController: findReservations is called by ownerId={} with state={}, cursor={}, size={}", userId, state, cursor, size);
+        List<BookingDto> reservationsList = bookingService.findReservations(userId, state, from, to, decodeCursor(cursor), size);
+        log.debug("BookingController: findReservations successful for ownerId={}, totalReservations={}", userId, reservationsList.size());
+        return toPage(reservationsList, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllForUser(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                                  @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("BookingController: streamAllForUser is called by userId={} with state={}", userId, state);
+        return stream(cursor -> bookingService.findAllForUser(userId, state, from, to, cursor, streamBatchSize));
+    }
+
+    @GetMapping(path = "owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservations(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                                    @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("BookingController: streamReservations is called by ownerId={} with state={}", userId, state);
+        return stream(cursor -> bookingService.findReservations(userId, state, from, to, cursor, streamBatchSize));
+    }
+
+    /**
+     * Writes one booking per line, fetching keyset pages of streamBatchSize. Each page is read in its
+     * own transaction, so the persistence context never holds more than one page. The first page is
+     * read before the response is committed so that errors still map to a proper status. A client
+     * disconnect fails the next write and stops the loop.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(Function<KeysetCursor, List<BookingDto>> pageLoader) {
+        List<BookingDto> firstPage = pageLoader.apply(null);
+        StreamingResponseBody body = outputStream -> {
+            List<BookingDto> page = firstPage;
+            while (!page.isEmpty()) {
+                for (BookingDto booking : page) {
+                    outputStream.write(objectMapper.writeValueAsBytes(booking));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                if (page.size() < streamBatchSize || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                page = pageLoader.apply(cursorAfter(page));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private KeysetCursor decodeCursor(String cursor) {
+        return cursor == null ? null : KeysetCursor.decode(cursor);
+    }
+
+    private KeysetCursor cursorAfter(List<BookingDto> page) {
+        BookingDto last = page.get(page.size() - 1);
+        return new KeysetCursor(last.getStart(), last.getId());
+    }
+
+    private ResponseEntity<List<BookingDto>> toPage(List<BookingDto> bookings, int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        String nextCursor = cursorAfter(bookings).encode();
+        return ResponseEntity.ok()
+                .header(X_NEXT_CURSOR, nextCursor)
+                .body(bookings);
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private final int index;
+    private final Outcome outcome;
+    private final Long bookingId;
+    private final String error;
+
+    public static BookingBatchResultDto created(int index, long bookingId) {
+        return new BookingBatchResultDto(index, Outcome.CREATED, bookingId, null);
+    }
+
+    public static BookingBatchResultDto failed(int index, Outcome outcome, String error) {
+        return new BookingBatchResultDto(index, outcome, null, error);
+    }
+
+    public enum Outcome {
+        CREATED,
+        ITEM_NOT_FOUND,
+        ITEM_UNAVAILABLE,
+        INVALID_PERIOD,
+        CONFLICT
+    }
+}
@@ -2,20 +2,44 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
+/**
+ * Read model for booking queries. Built by a JPQL constructor expression from one joined row, so
+ * no Booking, Item or User entity is loaded.
+ */
 @Getter
-@Setter
-@AllArgsConstructor
 public class BookingDto {
-    private LocalDateTime start;
-    private LocalDateTime end;
-    private Item item;
-    private User booker;
-    private BookingStatus status;
+    private final long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final ItemShortDto item;
+    private final BookerShortDto booker;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      long itemId, String itemName, long bookerId, String bookerName) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.item = new ItemShortDto(itemId, itemName);
+        this.booker = new BookerShortDto(bookerId, bookerName);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemShortDto {
+        private final long id;
+        private final String name;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BookerShortDto {
+        private final long id;
+        private final String name;
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingIntervalDto {
+    private final Long itemId;
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private final long bookingId;
+    private final long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                booking.getEnd(), booking.getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * One page of a booker's or an owner's bookings. Booker lists and the owner's ALL list are ordered
+ * newest first, the other owner lists oldest first. {@code from} and {@code to} optionally keep
+ * only bookings overlapping that window.
+ */
+@Getter
+@Builder
+public class BookingQuery {
+    private final Role role;
+    private final long userId;
+    private final BookingState state;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final KeysetCursor cursor;
+    private final int limit;
+    private final LocalDateTime now;
+
+    public boolean isDescending() {
+        return role == Role.BOOKER || state == BookingState.ALL;
+    }
+
+    public KeysetCursor position() {
+        return Optional.ofNullable(cursor).orElseGet(() -> KeysetCursor.first(isDescending()));
+    }
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+}
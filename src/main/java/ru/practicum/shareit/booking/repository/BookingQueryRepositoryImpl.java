@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.util.List;
+
+/**
+ * Builds the booking list query from fixed fragments. Every value, including "now", is a bound
+ * parameter, so there are only a few dozen distinct query strings and each one is parsed once and
+ * then served from Hibernate's query plan cache (and reused as a prepared statement by the driver).
+ */
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findPage(BookingQuery query) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.SELECT_BOOKING_DTO)
+                .append(query.getRole() == BookingQuery.Role.BOOKER ? "WHERE u.id = :userId" : "WHERE i.owner.id = :userId");
+        switch (query.getState()) {
+            case CURRENT -> jpql.append(" AND b.start <= :now AND b.end >= :now");
+            case PAST -> jpql.append(" AND b.end < :now");
+            case FUTURE -> jpql.append(" AND b.start > :now");
+            case WAITING, REJECTED -> jpql.append(" AND b.status = :status");
+            case ALL -> {
+            }
+        }
+        if (query.getFrom() != null) {
+            jpql.append(" AND b.end > :from");
+        }
+        if (query.getTo() != null) {
+            jpql.append(" AND b.start < :to");
+        }
+        if (query.isDescending()) {
+            jpql.append(" AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))")
+                    .append(" ORDER BY b.start DESC, b.id DESC");
+        } else {
+            jpql.append(" AND (b.start > :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId))")
+                    .append(" ORDER BY b.start, b.id");
+        }
+
+        KeysetCursor position = query.position();
+        TypedQuery<BookingDto> typedQuery = entityManager.createQuery(jpql.toString(), BookingDto.class)
+                .setParameter("userId", query.getUserId())
+                .setParameter("cursorStart", position.getTimestamp())
+                .setParameter("cursorId", position.getId())
+                .setMaxResults(query.getLimit());
+        switch (query.getState()) {
+            case CURRENT, PAST, FUTURE -> typedQuery.setParameter("now", query.getNow());
+            case WAITING -> typedQuery.setParameter("status", BookingStatus.WAITING);
+            case REJECTED -> typedQuery.setParameter("status", BookingStatus.REJECTED);
+            case ALL -> {
+            }
+        }
+        if (query.getFrom() != null) {
+            typedQuery.setParameter("from", query.getFrom());
+        }
+        if (query.getTo() != null) {
+            typedQuery.setParameter("to", query.getTo());
+        }
+        return typedQuery.getResultList();
+    }
+}
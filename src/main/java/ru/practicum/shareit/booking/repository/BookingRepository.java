@@ -1,88 +1,38 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 " +
-           "ORDER BY b.start DESC")
-    List<Booking> findAllByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 AND CURRENT TIMESTAMP BETWEEN b.start AND b.end " +
-           "ORDER BY b.start DESC")
-    List<Booking> findCurrentByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 AND CURRENT TIMESTAMP > b.end " +
-           "ORDER BY b.start DESC")
-    List<Booking> findPastByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 AND CURRENT TIMESTAMP < b.start " +
-           "ORDER BY b.start DESC")
-    List<Booking> findFutureByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 AND b.status = 'WAITING' " +
-           "ORDER BY b.start DESC")
-    List<Booking> findWaitingByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b JOIN b.booker u " +
-           "WHERE u.id = ?1 AND b.status = 'REJECTED' " +
-           "ORDER BY b.start DESC")
-    List<Booking> findRejectedByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 " +
-           "ORDER BY b.start DESC")
-    List<Booking> findAllReservationsByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 AND CURRENT TIMESTAMP BETWEEN b.start AND b.end " +
-           "ORDER BY b.start")
-    List<Booking> findCurrentReservationsByUserId(long userId);
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 AND CURRENT TIMESTAMP > b.end " +
-           "ORDER BY b.start")
-    List<Booking> findPastReservationsByUserId(long userId);
-
-
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 AND CURRENT TIMESTAMP < b.start " +
-           "ORDER BY b.start")
-    List<Booking> findFutureReservationsByUserId(long userId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    String SELECT_BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
 
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 AND b.status = 'WAITING' " +
-           "ORDER BY b.start")
-    List<Booking> findWaitingReservationsByUserId(long userId);
+    @Query(SELECT_BOOKING_DTO +
+           "WHERE b.id = ?1 AND (u.id = ?2 OR i.owner.id = ?2)")
+    Optional<BookingDto> findDtoByIdForUser(long bookingId, long userId);
 
-    @Query("SELECT b " +
-           "FROM Booking b " +
-           "WHERE b.item.owner.id = ?1 AND b.status = 'REJECTED' " +
-           "ORDER BY b.start")
-    List<Booking> findRejectedReservationsByUserId(long userId);
+    /**
+     * Sets the status only if the booking is still WAITING and its item belongs to the owner, so
+     * concurrent responses cannot both succeed. Returns the number of updated rows.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?3, b.version = b.version + 1 " +
+           "WHERE b.id = ?1 AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+           "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = ?2)")
+    int updateStatusIfWaiting(long bookingId, long ownerId, BookingStatus status);
 
     @Query("SELECT b " +
            "FROM Booking b " +
@@ -91,6 +41,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT COUNT(b) > 0 " +
            "FROM Booking b " +
-           "WHERE b.item.id = ?1 AND b.start >= ?2 AND ?3 <= b.end")
+           "WHERE b.item.id = ?1 AND b.start < ?3 AND b.end > ?2 " +
+           "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED")
     Boolean existsByItemAndPeriod(long itemId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.item.id, b.id, b.start, b.end) " +
+           "FROM Booking b " +
+           "WHERE b.item.id = ?1 AND b.end > ?2 " +
+           "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED")
+    List<BookingIntervalDto> findActiveIntervalsByItemId(long itemId, LocalDateTime endingAfter);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.item.id, b.id, b.start, b.end) " +
+           "FROM Booking b " +
+           "WHERE b.item.id IN ?1 AND b.end > ?2 " +
+           "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED")
+    List<BookingIntervalDto> findActiveIntervalsByItemIds(Collection<Long> itemIds, LocalDateTime endingAfter);
 }
\ No newline at end of file
@@ -0,0 +1,256 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of WAITING and APPROVED booking intervals per item, used for conflict checks and
+ * availability calendars.
+ * Items are loaded lazily from the database, kept in an LRU map and updated after commit from
+ * {@link BookingChangedEvent}s. The database stays the source of truth: an evicted item is simply
+ * reloaded on the next check.
+ * Only intervals that have not ended are kept, so an item's memory follows its upcoming bookings
+ * rather than its history; checks of windows that start before an item's horizon go to the
+ * database. Loads run outside the stripe locks, so no thread holds a monitor during I/O.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndex {
+    private static final int LOCK_STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> items;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final long[] versions = new long[LOCK_STRIPES];
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.interval-index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > maxItems;
+            }
+        });
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Checks whether [start, end) overlaps any active booking of the item in O(log n).
+     */
+    public boolean hasOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        Boolean overlaps = intervals(itemId).overlaps(start, end);
+        return overlaps != null ? overlaps : bookingRepository.existsByItemAndPeriod(itemId, start, end);
+    }
+
+    /**
+     * Returns the gaps between active bookings of the item within [from, to), in start order. Costs one
+     * binary search plus a walk over the bookings that start inside the window.
+     */
+    public List<FreeIntervalDto> freeIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<FreeIntervalDto> gaps = intervals(itemId).gaps(from, to);
+        return gaps != null ? gaps : new ItemIntervals(from, bookingRepository.findActiveIntervalsByItemId(itemId, from)).gaps(from, to);
+    }
+
+    /**
+     * Loads all missing items with one query. Each stripe has a version bumped by every event, and an
+     * item is only cached if its stripe did not change while the query ran; otherwise it is left to
+     * the lazy path.
+     */
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing = itemIds.stream().distinct().filter(itemId -> !items.containsKey(itemId)).toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        long[] seen = new long[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            synchronized (lock(missing.get(i))) {
+                seen[i] = versions[stripe(missing.get(i))];
+            }
+        }
+        LocalDateTime horizon = LocalDateTime.now();
+        Map<Long, List<BookingIntervalDto>> loaded = bookingRepository.findActiveIntervalsByItemIds(missing, horizon).stream()
+                .collect(Collectors.groupingBy(BookingIntervalDto::getItemId));
+        for (int i = 0; i < missing.size(); i++) {
+            long itemId = missing.get(i);
+            ItemIntervals intervals = new ItemIntervals(horizon, loaded.getOrDefault(itemId, List.of()));
+            synchronized (lock(itemId)) {
+                if (versions[stripe(itemId)] == seen[i] && !items.containsKey(itemId)) {
+                    items.put(itemId, intervals);
+                }
+            }
+        }
+        log.debug("BookingIntervalIndex: preloaded intervals for {} items", missing.size());
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        synchronized (lock(event.getItemId())) {
+            versions[stripe(event.getItemId())]++;
+            ItemIntervals intervals = items.get(event.getItemId());
+            if (intervals == null) {
+                return;
+            }
+            intervals.remove(event.getBookingId());
+            if (event.getStatus() != BookingStatus.REJECTED) {
+                intervals.add(new BookingIntervalDto(event.getItemId(), event.getBookingId(), event.getStart(), event.getEnd()));
+            }
+        }
+    }
+
+    /**
+     * A load is only cached if no event hit the item's stripe while it ran; otherwise it may miss the
+     * event, so it answers this one call (as a direct query would) and the next call loads again.
+     */
+    private ItemIntervals intervals(long itemId) {
+        ItemIntervals intervals = items.get(itemId);
+        if (intervals != null) {
+            return intervals;
+        }
+        long seen;
+        synchronized (lock(itemId)) {
+            seen = versions[stripe(itemId)];
+        }
+        LocalDateTime horizon = LocalDateTime.now();
+        ItemIntervals loaded = new ItemIntervals(horizon, bookingRepository.findActiveIntervalsByItemId(itemId, horizon));
+        synchronized (lock(itemId)) {
+            intervals = items.get(itemId);
+            if (intervals != null) {
+                return intervals;
+            }
+            if (versions[stripe(itemId)] == seen) {
+                items.put(itemId, loaded);
+                log.debug("BookingIntervalIndex: loaded {} intervals for item with id: {}", loaded.size(), itemId);
+            }
+            return loaded;
+        }
+    }
+
+    private Object lock(long itemId) {
+        return locks[stripe(itemId)];
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) LOCK_STRIPES);
+    }
+
+    /**
+     * Intervals sorted by start with a running maximum of ends, so the latest end among all
+     * intervals starting before a point is found with one binary search. Holds every active interval
+     * ending after the horizon; adding an interval drops the ones that have ended and moves the
+     * horizon to now.
+     */
+    private static final class ItemIntervals {
+        private final List<BookingIntervalDto> intervals;
+        private LocalDateTime horizon;
+        private LocalDateTime[] maxEnds;
+
+        private ItemIntervals(LocalDateTime horizon, List<BookingIntervalDto> intervals) {
+            this.horizon = horizon;
+            this.intervals = new ArrayList<>(intervals);
+            this.intervals.sort(Comparator.comparing(BookingIntervalDto::getStart));
+            recalculate();
+        }
+
+        /**
+         * Returns null when the window starts before the horizon, where intervals may be missing.
+         */
+        private synchronized Boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            if (start.isBefore(horizon)) {
+                return null;
+            }
+            int startingBefore = countStartingBefore(end);
+            return startingBefore > 0 && maxEnds[startingBefore - 1].isAfter(start);
+        }
+
+        /**
+         * Returns null when the window starts before the horizon, where intervals may be missing.
+         */
+        private synchronized List<FreeIntervalDto> gaps(LocalDateTime from, LocalDateTime to) {
+            if (from.isBefore(horizon)) {
+                return null;
+            }
+            List<FreeIntervalDto> gaps = new ArrayList<>();
+            int index = countStartingBefore(from);
+            LocalDateTime cursor = index > 0 && maxEnds[index - 1].isAfter(from) ? maxEnds[index - 1] : from;
+            for (; index < intervals.size() && intervals.get(index).getStart().isBefore(to); index++) {
+                BookingIntervalDto interval = intervals.get(index);
+                if (interval.getStart().isAfter(cursor)) {
+                    gaps.add(new FreeIntervalDto(cursor, interval.getStart()));
+                }
+                if (interval.getEnd().isAfter(cursor)) {
+                    cursor = interval.getEnd();
+                }
+            }
+            if (cursor.isBefore(to)) {
+                gaps.add(new FreeIntervalDto(cursor, to));
+            }
+            return gaps;
+        }
+
+        private synchronized void add(BookingIntervalDto interval) {
+            LocalDateTime now = LocalDateTime.now();
+            if (now.isAfter(horizon)) {
+                horizon = now;
+                intervals.removeIf(existing -> !existing.getEnd().isAfter(now));
+            }
+            if (interval.getEnd().isAfter(horizon)) {
+                intervals.add(countStartingBefore(interval.getStart()), interval);
+            }
+            recalculate();
+        }
+
+        private synchronized void remove(long bookingId) {
+            if (intervals.removeIf(interval -> interval.getId() == bookingId)) {
+                recalculate();
+            }
+        }
+
+        private synchronized int size() {
+            return intervals.size();
+        }
+
+        private int countStartingBefore(LocalDateTime point) {
+            int low = 0;
+            int high = intervals.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (intervals.get(middle).getStart().isBefore(point)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void recalculate() {
+            maxEnds = new LocalDateTime[intervals.size()];
+            LocalDateTime max = null;
+            for (int i = 0; i < intervals.size(); i++) {
+                LocalDateTime end = intervals.get(i).getEnd();
+                max = max == null || end.isAfter(max) ? end : max;
+                maxEnds[i] = max;
+            }
+        }
+    }
+}
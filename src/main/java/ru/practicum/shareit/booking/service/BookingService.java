@@ -1,20 +1,27 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
     Booking save(Long userId, BookingSaveDto bookingSaveDto);
 
+    List<BookingBatchResultDto> saveAll(long userId, List<BookingSaveDto> bookingSaveDtos);
+
     Booking responseToRequest(long userId, long bookingId, boolean approved);
 
     BookingDto findBookingById(long userId, long bookingId);
 
-    List<Booking> findAllForUser(long userId, BookingState state);
+    List<BookingDto> findAllForUser(long userId, BookingState state, LocalDateTime from, LocalDateTime to,
+                                    KeysetCursor cursor, int size);
 
-    List<Booking> findReservations(long userId, BookingState state);
+    List<BookingDto> findReservations(long userId, BookingState state, LocalDateTime from, LocalDateTime to,
+                                      KeysetCursor cursor, int size);
 }
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.booking.BookingAccessDeniedException;
 import ru.practicum.shareit.exception.booking.BookingConflictException;
@@ -18,39 +23,47 @@ import ru.practicum.shareit.exception.booking.InvalidBookingPeriodException;
 import ru.practicum.shareit.exception.item.ItemAccessDeniedException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.exception.item.ItemUnavailableException;
-import ru.practicum.shareit.exception.user.UserNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.tracing.RequestTrace;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public Booking save(Long bookerId, BookingSaveDto bookingSaveDto) {
-        log.info("BookingServiceImpl: attempting to save booking for user with id: {}", bookerId);
+        log.debug("BookingServiceImpl: attempting to save booking for user with id: {}", bookerId);
 
-        User booker = userRepository.findById(bookerId).orElseThrow(() -> {
-            log.warn("BookingServiceImpl: user not found with id: {}", bookerId);
-            return new UserNotFoundException("User with id " + bookerId + " not found");
-        });
-        log.info("BookingServiceImpl: found user with id: {}", bookerId);
+        User booker = RequestTrace.step("userLookup", () -> userService.findById(bookerId));
+        log.debug("BookingServiceImpl: found user with id: {}", bookerId);
 
-        Item item = itemRepository.findById(bookingSaveDto.getItemId()).orElseThrow(() -> {
+        Item item = RequestTrace.step("itemLookup", () -> itemRepository.findById(bookingSaveDto.getItemId())).orElseThrow(() -> {
             log.warn("BookingServiceImpl: item not found with id: {}", bookingSaveDto.getItemId());
             return new ItemNotFoundException("Item with id " + bookingSaveDto.getItemId() + " not found");
         });
-        log.info("BookingServiceImpl: found item with id: {}", bookingSaveDto.getItemId());
+        log.debug("BookingServiceImpl: found item with id: {}", bookingSaveDto.getItemId());
 
         if (!item.getAvailable()) {
             log.warn("BookingServiceImpl: item with id: {} is not available", item.getId());
@@ -62,7 +75,8 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidBookingPeriodException("End time cannot be before start time");
         }
 
-        boolean hasConflictingBookings = bookingRepository.existsByItemAndPeriod(item.getId(), bookingSaveDto.getStart(), bookingSaveDto.getEnd());
+        boolean hasConflictingBookings = RequestTrace.step("conflictCheck",
+                () -> bookingIntervalIndex.hasOverlap(item.getId(), bookingSaveDto.getStart(), bookingSaveDto.getEnd()));
         if (hasConflictingBookings) {
             log.warn("BookingServiceImpl: booking period conflicts with an existing booking for item with id: {}", item.getId());
             throw new BookingConflictException("Booking period conflicts with an existing booking");
@@ -76,143 +90,188 @@ public class BookingServiceImpl implements BookingService {
                 BookingStatus.WAITING
         );
 
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("BookingServiceImpl: successfully saved booking with id: {}", savedBooking.getId());
+        Booking savedBooking = RequestTrace.step("save", () -> bookingRepository.save(booking));
+        eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking));
+        log.debug("BookingServiceImpl: successfully saved booking with id: {}", savedBooking.getId());
 
         return savedBooking;
     }
 
     @Override
     @Transactional
-    public Booking responseToRequest(long userId, long bookingId, boolean approved) {
-        log.info("BookingServiceImpl: attempting to respond to booking request with id: {} by user with id: {}", bookingId, userId);
-
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
-            log.warn("BookingServiceImpl: booking not found with id: {}", bookingId);
-            return new BookingNotFoundException("Booking with id " + bookingId + " not found");
-        });
-        log.info("BookingServiceImpl: found booking with id: {}", bookingId);
+    public List<BookingBatchResultDto> saveAll(long bookerId, List<BookingSaveDto> bookingSaveDtos) {
+        log.debug("BookingServiceImpl: attempting to save {} bookings for user with id: {}", bookingSaveDtos.size(), bookerId);
+
+        User booker = RequestTrace.step("userLookup", () -> userService.findById(bookerId));
+
+        Set<Long> itemIds = bookingSaveDtos.stream().map(BookingSaveDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = RequestTrace.step("itemLookup", () -> itemRepository.findAllWithOwnerByIdIn(itemIds)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        log.debug("BookingServiceImpl: found {} of {} items", items.size(), itemIds.size());
+
+        bookingIntervalIndex.preload(items.keySet());
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingSaveDtos.size()];
+        Map<Long, List<BookingSaveDto>> accepted = new HashMap<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < bookingSaveDtos.size(); i++) {
+            BookingSaveDto bookingSaveDto = bookingSaveDtos.get(i);
+            Item item = items.get(bookingSaveDto.getItemId());
+            Optional<BookingBatchResultDto> failure = validate(i, bookingSaveDto, item, accepted);
+            if (failure.isPresent()) {
+                results[i] = failure.get();
+                continue;
+            }
+            accepted.computeIfAbsent(item.getId(), itemId -> new ArrayList<>()).add(bookingSaveDto);
+            bookings.add(new Booking(bookingSaveDto.getStart(), bookingSaveDto.getEnd(), item, booker, BookingStatus.WAITING));
+            positions.add(i);
+        }
 
-        if (booking.getItem().getOwner().getId() != userId) {
-            log.warn("BookingServiceImpl: user with id: {} is not the owner of the item with id: {}", userId, booking.getItem().getId());
-            throw new ItemAccessDeniedException(
-                    "User with id " + userId + " is not the owner of the item with id " + booking.getItem().getId());
+        List<Booking> savedBookings = RequestTrace.step("save", () -> bookingRepository.saveAll(bookings));
+        for (int i = 0; i < savedBookings.size(); i++) {
+            Booking savedBooking = savedBookings.get(i);
+            results[positions.get(i)] = BookingBatchResultDto.created(positions.get(i), savedBooking.getId());
+            eventPublisher.publishEvent(BookingChangedEvent.of(savedBooking));
         }
+        log.debug("BookingServiceImpl: saved {} of {} bookings for user with id: {}", savedBookings.size(), results.length, bookerId);
+
+        return List.of(results);
+    }
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            log.warn("BookingServiceImpl: booking with id: {} is already processed with status: {}", bookingId, booking.getStatus());
-            throw new IllegalStateException("Booking is already processed: " + booking.getStatus());
+    /**
+     * Applies the checks of {@link #save} to one batch entry, treating entries accepted earlier in the
+     * same batch like existing bookings.
+     */
+    private Optional<BookingBatchResultDto> validate(int index, BookingSaveDto bookingSaveDto, Item item,
+                                                     Map<Long, List<BookingSaveDto>> accepted) {
+        if (item == null) {
+            return Optional.of(BookingBatchResultDto.failed(index, BookingBatchResultDto.Outcome.ITEM_NOT_FOUND,
+                    "Item with id " + bookingSaveDto.getItemId() + " not found"));
+        }
+        if (!item.getAvailable()) {
+            return Optional.of(BookingBatchResultDto.failed(index, BookingBatchResultDto.Outcome.ITEM_UNAVAILABLE,
+                    "Item is not available"));
+        }
+        LocalDateTime start = bookingSaveDto.getStart();
+        LocalDateTime end = bookingSaveDto.getEnd();
+        if (start == null || end == null || end.isBefore(start)) {
+            return Optional.of(BookingBatchResultDto.failed(index, BookingBatchResultDto.Outcome.INVALID_PERIOD,
+                    "End time cannot be before start time"));
         }
+        boolean hasConflictingBookings = bookingIntervalIndex.hasOverlap(item.getId(), start, end)
+                || accepted.getOrDefault(item.getId(), List.of()).stream()
+                .anyMatch(other -> other.getStart().isBefore(end) && other.getEnd().isAfter(start));
+        if (hasConflictingBookings) {
+            return Optional.of(BookingBatchResultDto.failed(index, BookingBatchResultDto.Outcome.CONFLICT,
+                    "Booking period conflicts with an existing booking"));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public Booking responseToRequest(long userId, long bookingId, boolean approved) {
+        log.debug("BookingServiceImpl: attempting to respond to booking request with id: {} by user with id: {}", bookingId, userId);
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        log.info("BookingServiceImpl: updated booking with id: {} to status: {}", bookingId, booking.getStatus());
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = RequestTrace.step("update", () -> bookingRepository.updateStatusIfWaiting(bookingId, userId, status));
+        if (updated == 0) {
+            throw rejectResponse(userId, bookingId);
+        }
+        log.debug("BookingServiceImpl: updated booking with id: {} to status: {}", bookingId, status);
 
-        Booking updatedBooking = bookingRepository.save(booking); // Assuming save method is necessary for persistence
-        log.info("BookingServiceImpl: successfully responded to booking request with id: {} with approval status: {}", bookingId, approved);
+        // the response keeps the full booking with its item and booker; they are fetched in the same statement,
+        // so a successful response costs the update and this read (asserted in BookingStatementCountTest)
+        Booking updatedBooking = RequestTrace.step("bookingLookup", () -> bookingRepository.findById(bookingId))
+                .orElseThrow(() -> new BookingNotFoundException("Booking with id " + bookingId + " not found"));
+        eventPublisher.publishEvent(BookingChangedEvent.of(updatedBooking));
+        log.debug("BookingServiceImpl: successfully responded to booking request with id: {} with approval status: {}", bookingId, approved);
 
         return updatedBooking;
     }
 
+    /**
+     * Works out why the conditional update matched no row. Only runs on the failure path.
+     */
+    private RuntimeException rejectResponse(long userId, long bookingId) {
+        Optional<Booking> booking = bookingRepository.findById(bookingId);
+        if (booking.isEmpty()) {
+            log.warn("BookingServiceImpl: booking not found with id: {}", bookingId);
+            return new BookingNotFoundException("Booking with id " + bookingId + " not found");
+        }
+        Item item = booking.get().getItem();
+        if (item.getOwner().getId() != userId) {
+            log.warn("BookingServiceImpl: user with id: {} is not the owner of the item with id: {}", userId, item.getId());
+            return new ItemAccessDeniedException(
+                    "User with id " + userId + " is not the owner of the item with id " + item.getId());
+        }
+        log.warn("BookingServiceImpl: booking with id: {} is already processed with status: {}", bookingId, booking.get().getStatus());
+        return new IllegalStateException("Booking is already processed: " + booking.get().getStatus());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingDto findBookingById(long userId, long bookingId) {
-        log.info("BookingServiceImpl: attempting to find booking with id: {} for user with id: {}", bookingId, userId);
+        log.debug("BookingServiceImpl: attempting to find booking with id: {} for user with id: {}", bookingId, userId);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
-            log.warn("BookingServiceImpl: booking not found with id: {}", bookingId);
-            return new BookingNotFoundException("booking with id " + bookingId + " not found");
-        });
-        log.info("BookingServiceImpl: found booking with id: {}", bookingId);
-
-        long bookerId = booking.getBooker().getId();
-        long ownerId = booking.getItem().getOwner().getId();
-
-        if (bookerId != userId && ownerId != userId) {
-            log.warn("BookingServiceImpl: access denied for booking with id: {} for user with id: {}", bookingId, userId);
-            throw new BookingAccessDeniedException(
-                    "access denied for booking with id " + bookingId + " for user with id " + userId);
-        }
-
-        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
-        log.info("BookingServiceImpl: successfully retrieved booking with id: {}", bookingId);
+        // the access check is part of the query; only a miss needs a second statement to pick the error
+        BookingDto bookingDto = RequestTrace.step("bookingLookup", () -> bookingRepository.findDtoByIdForUser(bookingId, userId))
+                .orElseThrow(() -> {
+                    if (!bookingRepository.existsById(bookingId)) {
+                        log.warn("BookingServiceImpl: booking not found with id: {}", bookingId);
+                        return new BookingNotFoundException("booking with id " + bookingId + " not found");
+                    }
+                    log.warn("BookingServiceImpl: access denied for booking with id: {} for user with id: {}", bookingId, userId);
+                    return new BookingAccessDeniedException(
+                            "access denied for booking with id " + bookingId + " for user with id " + userId);
+                });
+        log.debug("BookingServiceImpl: successfully retrieved booking with id: {}", bookingId);
 
         return bookingDto;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> findAllForUser(long userId, BookingState state) {
-        log.info("BookingServiceImpl: attempting to find all bookings for user with id: {} and state: {}", userId, state);
+    @Timed(value = "shareit.service.booking.list", histogram = true)
+    public List<BookingDto> findAllForUser(long userId, @MeterTag("state") BookingState state, LocalDateTime from,
+                                           LocalDateTime to, KeysetCursor cursor, int size) {
+        log.debug("BookingServiceImpl: attempting to find all bookings for user with id: {} and state: {}", userId, state);
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> {
-                log.info("BookingServiceImpl: fetching all bookings for user with id: {}", userId);
-                yield bookingRepository.findAllByUserId(userId);
-            }
-            case CURRENT -> {
-                log.info("BookingServiceImpl: fetching current bookings for user with id: {}", userId);
-                yield bookingRepository.findCurrentByUserId(userId);
-            }
-            case PAST -> {
-                log.info("BookingServiceImpl: fetching past bookings for user with id: {}", userId);
-                yield bookingRepository.findPastByUserId(userId);
-            }
-            case FUTURE -> {
-                log.info("BookingServiceImpl: fetching future bookings for user with id: {}", userId);
-                yield bookingRepository.findFutureByUserId(userId);
-            }
-            case WAITING -> {
-                log.info("BookingServiceImpl: fetching waiting bookings for user with id: {}", userId);
-                yield bookingRepository.findWaitingByUserId(userId);
-            }
-            case REJECTED -> {
-                log.info("BookingServiceImpl: fetching rejected bookings for user with id: {}", userId);
-                yield bookingRepository.findRejectedByUserId(userId);
-            }
-        };
-
-        log.info("BookingServiceImpl: successfully retrieved {} bookings for user with id: {}", bookings.size(), userId);
+        List<BookingDto> bookings = findPage(BookingQuery.Role.BOOKER, userId, state, from, to, cursor, size);
+        log.debug("BookingServiceImpl: successfully retrieved {} bookings for user with id: {}", bookings.size(), userId);
 
         return bookings;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> findReservations(long userId, BookingState state) {
-        log.info("BookingServiceImpl: attempting to find reservations for user with id: {} and state: {}", userId, state);
+    @Timed(value = "shareit.service.booking.list", histogram = true)
+    public List<BookingDto> findReservations(long userId, @MeterTag("state") BookingState state, LocalDateTime from,
+                                             LocalDateTime to, KeysetCursor cursor, int size) {
+        log.debug("BookingServiceImpl: attempting to find reservations for user with id: {} and state: {}", userId, state);
 
-        List<Booking> bookings = switch (state) {
-            case ALL -> {
-                log.info("BookingServiceImpl: fetching all reservations for user with id: {}", userId);
-                yield bookingRepository.findAllReservationsByUserId(userId);
-            }
-            case CURRENT -> {
-                log.info("BookingServiceImpl: fetching current reservations for user with id: {}", userId);
-                yield bookingRepository.findCurrentReservationsByUserId(userId);
-            }
-            case PAST -> {
-                log.info("BookingServiceImpl: fetching past reservations for user with id: {}", userId);
-                yield bookingRepository.findPastReservationsByUserId(userId);
-            }
-            case FUTURE -> {
-                log.info("BookingServiceImpl: fetching future reservations for user with id: {}", userId);
-                yield bookingRepository.findFutureReservationsByUserId(userId);
-            }
-            case WAITING -> {
-                log.info("BookingServiceImpl: fetching waiting reservations for user with id: {}", userId);
-                yield bookingRepository.findWaitingReservationsByUserId(userId);
-            }
-            case REJECTED -> {
-                log.info("BookingServiceImpl: fetching rejected reservations for user with id: {}", userId);
-                yield bookingRepository.findRejectedReservationsByUserId(userId);
-            }
-        };
+        List<BookingDto> bookings = findPage(BookingQuery.Role.OWNER, userId, state, from, to, cursor, size);
 
         return Optional.ofNullable(bookings)
-                .filter(list -> !list.isEmpty())
+                .filter(list -> cursor != null || !list.isEmpty())
                 .orElseThrow(() -> {
                     log.warn("BookingServiceImpl: no reservations found for user with id: {}", userId);
                     return new BookingNotFoundException("No reservations found for user " + userId);
                 });
     }
+
+    private List<BookingDto> findPage(BookingQuery.Role role, long userId, BookingState state, LocalDateTime from,
+                                      LocalDateTime to, KeysetCursor cursor, int size) {
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(state)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(size)
+                .now(LocalDateTime.now())
+                .build();
+        return RequestTrace.step("bookingQuery", () -> bookingRepository.findPage(query));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.datasource.DataSourcePools;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.exception.bulkhead.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many threads can be inside a transactional service call at once. Write transactions
+ * and reads sent to the primary take a permit sized like the primary pool. Read-only transactions
+ * take a permit sized like the replica pools together, or share the primary permits when no
+ * replica is configured. A read-only call whose connection is routed to the primary after all (a
+ * primary-read hint set inside it, or no healthy replica) trades its read permit for a write
+ * permit when the routing data source calls {@link #primaryRead}. With virtual threads the excess
+ * requests wait on the semaphore (cheap) instead of on Hikari, and are rejected with 503 once
+ * max-wait passes. Runs outside the transaction interceptor, so no connection is held while
+ * waiting; nested calls reuse the permit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DatabaseBulkhead {
+    private final ThreadLocal<Semaphore> held = new ThreadLocal<>();
+    private final Semaphore writePermits;
+    private final Semaphore readPermits;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public DatabaseBulkhead(@Value("${shareit.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                            @Value("${shareit.bulkhead.max-concurrent-reads:0}") int maxConcurrentReads,
+                            @Value("${shareit.bulkhead.max-wait:200ms}") Duration maxWait,
+                            ObjectProvider<DataSourcePools> pools,
+                            MeterRegistry meterRegistry) {
+        this.writePermits = new Semaphore(maxConcurrent, true);
+        int reads = maxConcurrentReads > 0 ? maxConcurrentReads : replicaConnections(pools.getIfAvailable());
+        this.readPermits = reads > 0 ? new Semaphore(reads, true) : writePermits;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder("shareit.bulkhead.rejected")
+                .description("Calls rejected because no database permit became free in time")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bulkhead.available", writePermits, Semaphore::availablePermits)
+                .description("Free database permits")
+                .tag("route", "write")
+                .register(meterRegistry);
+        if (readPermits != writePermits) {
+            Gauge.builder("shareit.bulkhead.available", readPermits, Semaphore::availablePermits)
+                    .description("Free database permits")
+                    .tag("route", "read")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Around("@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (held.get() != null) {
+            return joinPoint.proceed();
+        }
+        Semaphore permits = isReadOnly(joinPoint) && !PrimaryReads.isRequired() ? readPermits : writePermits;
+        acquire(permits);
+        held.set(permits);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            held.get().release();
+            held.remove();
+        }
+    }
+
+    /**
+     * Called when the current thread's connection goes to the primary. A call holding a read permit
+     * takes a write permit instead, or fails with 503 once max-wait passes.
+     */
+    public void primaryRead() {
+        Semaphore permits = held.get();
+        if (permits == null || permits == writePermits) {
+            return;
+        }
+        acquire(writePermits);
+        permits.release();
+        held.set(writePermits);
+    }
+
+    private void acquire(Semaphore permits) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException("Service is busy, try again later");
+        }
+    }
+
+    private static boolean isReadOnly(ProceedingJoinPoint joinPoint) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Transactional.class);
+        }
+        return transactional != null && transactional.readOnly();
+    }
+
+    private static int replicaConnections(DataSourcePools pools) {
+        if (pools == null) {
+            return 0;
+        }
+        return pools.getReplicas().stream()
+                .mapToInt(replica -> replica.getDataSource().getMaximumPoolSize())
+                .sum();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Connection pools behind the routing data source: the primary and one pool per replica, with the
+ * replica health kept up to date by {@link ReplicaLagMonitor}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DataSourcePools {
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primary.close();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        @Setter
+        private volatile boolean healthy = true;
+        @Setter
+        private volatile double lagSeconds;
+    }
+}
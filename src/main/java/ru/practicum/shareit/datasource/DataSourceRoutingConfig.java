@@ -0,0 +1,100 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import ru.practicum.shareit.bulkhead.DatabaseBulkhead;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active when at least one replica is configured with {@code shareit.datasource.replicas[n].url}. The
+ * primary pool keeps using the {@code spring.datasource} settings; replica pools copy its Hikari
+ * settings.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({ReplicaProperties.class, DataSourceProperties.class})
+@ConditionalOnProperty(name = "shareit.datasource.replicas[0].url")
+public class DataSourceRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public DataSourcePools dataSourcePools(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                           Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        List<DataSourcePools.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica settings = replicaProperties.getReplicas().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(settings.getUrl());
+            replica.setUsername(settings.getUsername());
+            replica.setPassword(settings.getPassword());
+            replica.setDriverClassName(DatabaseDriver.fromJdbcUrl(settings.getUrl()).getDriverClassName());
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            if (replicaProperties.isMigrateReplicas()) {
+                migrate(replica, settings.getUrl(), environment);
+            }
+            replicas.add(new DataSourcePools.Replica(replica.getPoolName(), replica));
+        }
+        return new DataSourcePools(primary, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourcePools pools, MeterRegistry meterRegistry, ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(pools, meterRegistry,
+                () -> bulkhead.ifAvailable(DatabaseBulkhead::primaryRead)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            ReplicaProperties replicaProperties,
+            @Value("${shareit.datasource.read-your-writes.max-clients:100000}") long maxClients) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(replicaProperties.getMaxLag(), maxClients));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourcePools pools, ReplicaProperties replicaProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(pools, replicaProperties, meterRegistry);
+    }
+
+    private static void migrate(DataSource dataSource, String url, Environment environment) {
+        String vendor = DatabaseDriver.fromJdbcUrl(url).getId();
+        List<String> locations = Binder.get(environment).bind("spring.flyway.locations", Bindable.listOf(String.class))
+                .orElse(List.of("classpath:db/migration"));
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations.stream().map(location -> location.replace("{vendor}", vendor)).toArray(String[]::new))
+                .load()
+                .migrate();
+    }
+}
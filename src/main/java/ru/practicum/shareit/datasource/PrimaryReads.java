@@ -0,0 +1,59 @@
+package ru.practicum.shareit.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Route hint that sends the read-only transactions of the current thread to the primary. Used for
+ * cache loaders, whose result outlives the request and must not come from a lagging replica, and
+ * for a client's reads right after its own writes. The hint is read when a transaction takes its
+ * connection, so it has to be set before the transaction's first statement.
+ */
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> REQUIRED = ThreadLocal.withInitial(() -> false);
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isRequired() {
+        return REQUIRED.get();
+    }
+
+    /**
+     * Sets the hint and returns the previous value for {@link #restore}.
+     */
+    public static boolean require() {
+        boolean previous = REQUIRED.get();
+        REQUIRED.set(true);
+        return previous;
+    }
+
+    public static void restore(boolean previous) {
+        REQUIRED.set(previous);
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        boolean previous = require();
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Wraps a task so it keeps the hint of the thread that submitted it.
+     */
+    public static Runnable propagate(Runnable task) {
+        if (!isRequired()) {
+            return task;
+        }
+        return () -> {
+            boolean previous = require();
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a healthy replica (round robin) and everything
+ * else to the primary, as do reads under the {@link PrimaryReads} hint. Falls back to the primary
+ * when no replica is healthy. Must be wrapped in a LazyConnectionDataSourceProxy so the connection
+ * is taken after the transaction is marked read-only. A read-only transaction sent to the primary
+ * is reported to the primary-read listener first, so it can be counted against the primary's limits.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final List<DataSourcePools.Replica> replicas;
+    private final Map<String, Counter> routeCounters = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Runnable primaryReadListener;
+
+    public ReadWriteRoutingDataSource(DataSourcePools pools, MeterRegistry meterRegistry, Runnable primaryReadListener) {
+        this.replicas = pools.getReplicas();
+        this.primaryReadListener = primaryReadListener;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, pools.getPrimary());
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        targets.keySet().forEach(route -> routeCounters.put((String) route, Counter.builder("shareit.datasource.connections")
+                .description("Connections handed out per data source route")
+                .tag("route", (String) route)
+                .register(meterRegistry)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pools.getPrimary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String route = route();
+        if (PRIMARY.equals(route) && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryReadListener.run();
+        }
+        routeCounters.get(route).increment();
+        return route;
+    }
+
+    private String route() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PrimaryReads.isRequired()) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSourcePools.Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sends a client's reads to the primary for max-lag after the client's last successful write, so
+ * it sees its own changes even while the replicas catch up. Clients are told apart by the
+ * {@code X-Sharer-User-Id} header, or by their address when it is missing.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration maxLag, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(maxLag)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = client(request);
+        boolean primary = recentWriters.getIfPresent(client) != null;
+        boolean previous = primary && PrimaryReads.require();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (primary) {
+                PrimaryReads.restore(previous);
+            }
+        }
+        if (WRITE_METHODS.contains(request.getMethod()) && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        String userId = request.getHeader(USER_HEADER);
+        return userId != null ? "user:" + userId : "address:" + request.getRemoteAddr();
+    }
+}
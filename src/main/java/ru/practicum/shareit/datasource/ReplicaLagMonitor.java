@@ -0,0 +1,53 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures replica lag and takes replicas that lag too much, or cannot be reached,
+ * out of the read rotation until they recover.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final DataSourcePools pools;
+    private final ReplicaProperties properties;
+
+    public ReplicaLagMonitor(DataSourcePools pools, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.pools = pools;
+        this.properties = properties;
+        for (DataSourcePools.Replica replica : pools.getReplicas()) {
+            Gauge.builder("shareit.datasource.replica.lag", replica, DataSourcePools.Replica::getLagSeconds)
+                    .description("Replication lag of the replica in seconds")
+                    .baseUnit("seconds")
+                    .tag("route", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether the replica takes read-only transactions")
+                    .tag("route", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.lag-check-interval:5s}")
+    public void check() {
+        double maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        for (DataSourcePools.Replica replica : pools.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(properties.getLagQuery(), Double.class);
+                replica.setLagSeconds(lag == null ? 0 : lag);
+                replica.setHealthy(replica.getLagSeconds() <= maxLagSeconds);
+            } catch (RuntimeException e) {
+                replica.setHealthy(false);
+                log.warn("ReplicaLagMonitor: lag check failed for {}: {}", replica.getName(), e.getMessage());
+            }
+            if (wasHealthy != replica.isHealthy()) {
+                log.warn("ReplicaLagMonitor: {} is now {}, lag {}s", replica.getName(),
+                        replica.isHealthy() ? "in rotation" : "out of rotation", replica.getLagSeconds());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Builds strong entity tags from the version values a representation depends on. Controllers pass
+ * them to {@code WebRequest.checkNotModified}, which answers a matching If-None-Match with 304.
+ * Each part is length-prefixed before hashing, so different part lists never produce the same input.
+ */
+public final class EntityTags {
+    private EntityTags() {
+    }
+
+    public static String of(Object... parts) {
+        String raw = Arrays.stream(parts).map(EntityTags::encode).collect(Collectors.joining());
+        return DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(Object part) {
+        if (part == null) {
+            return "-";
+        }
+        String value = part.toString();
+        return value.length() + ":" + value;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.exception.controller;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,10 +12,13 @@ import ru.practicum.shareit.exception.booking.BookingAccessDeniedException;
 import ru.practicum.shareit.exception.booking.BookingConflictException;
 import ru.practicum.shareit.exception.booking.BookingNotFoundException;
 import ru.practicum.shareit.exception.booking.InvalidBookingPeriodException;
+import ru.practicum.shareit.exception.bulkhead.BulkheadFullException;
 import ru.practicum.shareit.exception.item.ItemAccessDeniedException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.exception.item.ItemUnavailableException;
 import ru.practicum.shareit.exception.model.ErrorDetails;
+import ru.practicum.shareit.exception.pagination.InvalidCursorException;
+import ru.practicum.shareit.exception.request.ItemRequestNotFoundException;
 import ru.practicum.shareit.exception.user.EmailAlreadyExistException;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
 
@@ -34,7 +38,8 @@ public class ExceptionHandlingController {
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    @ExceptionHandler({ItemUnavailableException.class, InvalidBookingPeriodException.class})
+    @ExceptionHandler({ItemUnavailableException.class, InvalidBookingPeriodException.class,
+            InvalidCursorException.class, ConstraintViolationException.class})
     public ResponseEntity<?> handleBadRequestExceptions(Exception e, WebRequest request) {
         return handleException(e, HttpStatus.BAD_REQUEST, request);
     }
@@ -46,8 +51,15 @@ public class ExceptionHandlingController {
     }
 
     @ResponseStatus(HttpStatus.NOT_FOUND)
-    @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class, BookingNotFoundException.class})
+    @ExceptionHandler({UserNotFoundException.class, ItemNotFoundException.class, BookingNotFoundException.class,
+            ItemRequestNotFoundException.class})
     public ResponseEntity<?> handleNotFoundExceptions(Exception e, WebRequest request) {
         return handleException(e, HttpStatus.NOT_FOUND, request);
     }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<?> handleServiceUnavailableExceptions(Exception e, WebRequest request) {
+        return handleException(e, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
 }
\ No newline at end of file
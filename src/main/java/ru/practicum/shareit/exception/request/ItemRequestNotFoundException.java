@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.request;
+
+public class ItemRequestNotFoundException extends RuntimeException {
+    public ItemRequestNotFoundException(String message) {
+        super(message);
+    }
+}
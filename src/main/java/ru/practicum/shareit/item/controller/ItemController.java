@@ -1,69 +1,114 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+    public static final int MAX_PAGE_SIZE = 500;
     private final ItemService itemService;
+    @Value("${shareit.items.availability.default-days:30}")
+    private int availabilityDays;
 
     @PostMapping
     public Item save(@RequestBody @Valid ItemDto itemDto, @RequestHeader(X_SHARER_USER_ID) long userId) {
-        log.info("ItemController: create is called with userId = {}, itemDto = {}", userId, itemDto);
+        log.debug("ItemController: create is called with userId = {}, itemDto = {}", userId, itemDto);
         Item item = itemService.save(itemDto, userId);
-        log.info("ItemController: item created successfully with itemId = {}", item.getId());
+        log.debug("ItemController: item created successfully with itemId = {}", item.getId());
         return item;
     }
 
     @PatchMapping("{itemId}")
     public Item update(@PathVariable long itemId, @RequestBody UpdateItemDto itemDto, @RequestHeader(X_SHARER_USER_ID) long userId) {
-        log.info("ItemController: update is called with userId = {}, itemId = {}, update data = {}", userId, itemId, itemDto);
+        log.debug("ItemController: update is called with userId = {}, itemId = {}, update data = {}", userId, itemId, itemDto);
         Item item = itemService.update(itemId, itemDto, userId);
-        log.info("ItemController: item updated successfully for itemId = {}", itemId);
+        log.debug("ItemController: item updated successfully for itemId = {}", itemId);
         return item;
     }
 
     @GetMapping("{itemId}")
-    public ItemWithCommentsDto findById(@PathVariable long itemId) {
-        log.info("ItemController: findById is called for itemId = {}", itemId);
-        ItemWithCommentsDto itemDto = itemService.findById(itemId);
-        log.info("ItemController: item received successfully for itemId = {}", itemId);
+    public ItemWithCommentsDto findById(@PathVariable long itemId, WebRequest request) {
+        log.debug("ItemController: findById is called for itemId = {}", itemId);
+        ItemWithCommentsDto itemDto = itemService.findById(itemId, request::checkNotModified);
+        if (itemDto == null) {
+            log.debug("ItemController: item not modified for itemId = {}", itemId);
+            return null;
+        }
+        log.debug("ItemController: item received successfully for itemId = {}", itemId);
         return itemDto;
     }
 
     @GetMapping
-    public List<ItemWithBookingDateDto> allItemsFromUser(@RequestHeader(X_SHARER_USER_ID) long userId) {
-        log.info("ItemController: allItemsFromUser is called for userId = {}", userId);
-        List<ItemWithBookingDateDto> items = itemService.allItemsFromUser(userId);
-        log.info("ItemController: all items from userId = {} successfully received, total items = {}", userId, items.size());
+    public List<ItemWithBookingDateDto> allItemsFromUser(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                         @RequestParam(required = false) @PositiveOrZero Integer from,
+                                                         @RequestParam(required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size,
+                                                         WebRequest request) {
+        log.debug("ItemController: allItemsFromUser is called for userId = {}, from = {}, size = {}", userId, from, size);
+        Pageable page = OffsetPageRequest.ofOptional(from, size, Integer.parseInt(DEFAULT_PAGE_SIZE));
+        List<ItemWithBookingDateDto> items = itemService.allItemsFromUser(userId, page, request::checkNotModified);
+        if (items == null) {
+            log.debug("ItemController: items not modified for userId = {}", userId);
+            return null;
+        }
+        log.debug("ItemController: all items from userId = {} successfully received, total items = {}", userId, items.size());
         return items;
     }
 
     @GetMapping("search")
-    public List<ItemDto> search(@RequestParam String text) {
-        log.info("ItemController: search is called with text = {}", text);
-        List<ItemDto> items = itemService.search(text);
-        log.info("ItemController: search completed successfully, found items = {}", items.size());
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end,
+                                @RequestParam(required = false) @PositiveOrZero Integer from,
+                                @RequestParam(required = false) @Positive @Max(MAX_PAGE_SIZE) Integer size) {
+        log.debug("ItemController: search is called with text = {}, start = {}, end = {}, from = {}, size = {}", text, start, end, from, size);
+        List<ItemDto> items = itemService.search(text, start, end, OffsetPageRequest.ofOptional(from, size, Integer.parseInt(DEFAULT_PAGE_SIZE)));
+        log.debug("ItemController: search completed successfully, found items = {}", items.size());
         return items;
     }
 
+    @GetMapping("{itemId}/availability")
+    public List<FreeIntervalDto> findAvailability(@PathVariable long itemId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("ItemController: findAvailability is called for itemId = {}, from = {}, to = {}", itemId, from, to);
+        LocalDateTime windowStart = from == null ? LocalDateTime.now() : from;
+        LocalDateTime windowEnd = to == null ? windowStart.plusDays(availabilityDays) : to;
+        List<FreeIntervalDto> freeIntervals = itemService.findAvailability(itemId, windowStart, windowEnd);
+        log.debug("ItemController: availability received successfully for itemId = {}, free intervals = {}", itemId, freeIntervals.size());
+        return freeIntervals;
+    }
+
     @PostMapping("{itemId}/comment")
     public CommentDto saveComment(@RequestHeader(X_SHARER_USER_ID) long userId, @PathVariable long itemId, @RequestBody Comment comment) {
-        log.info("ItemController: saveComment is called with userId = {}, itemId = {}, comment = {}", userId, itemId, comment);
+        log.debug("ItemController: saveComment is called with userId = {}, itemId = {}, comment = {}", userId, itemId, comment);
         CommentDto savedComment = itemService.saveComment(comment, itemId, userId);
-        log.info("ItemController: comment saved successfully with commentId = {}", savedComment.getId());
+        log.debug("ItemController: comment saved successfully with commentId = {}", savedComment.getId());
         return savedComment;
     }
 
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class CommentInfoDto {
+    @JsonIgnore
+    private final long itemId;
+    private final long id;
+    private final String text;
+    private final String authorName;
+    private final LocalDate created;
+}
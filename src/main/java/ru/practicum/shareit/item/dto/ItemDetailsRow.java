@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the item details query: the item with its last and next booking, repeated for each of
+ * its comments. The comment columns are null for an item without comments. {@code nextEnd} is the
+ * earliest end of a booking that has not ended yet, the moment the last booking changes.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemDetailsRow {
+    private final long id;
+    private final Long version;
+    private final String name;
+    private final String description;
+    private final Boolean available;
+    private final LocalDateTime lastBooking;
+    private final LocalDateTime nextBooking;
+    private final LocalDateTime nextEnd;
+    private final Long commentId;
+    private final String commentText;
+    private final String authorName;
+    private final LocalDate commentCreated;
+}
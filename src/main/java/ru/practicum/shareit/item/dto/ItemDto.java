@@ -2,13 +2,14 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Setter
 @Getter
-@AllArgsConstructor
+@NoArgsConstructor
 public class ItemDto {
     private long id;
     @NotBlank
@@ -17,4 +18,13 @@ public class ItemDto {
     private String description;
     @NotNull
     private Boolean available;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long requestId;
+
+    public ItemDto(long id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+    }
 }
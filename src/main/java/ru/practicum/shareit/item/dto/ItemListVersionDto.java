@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Summary of an owner's items, bookings and comments that changes whenever the owner dashboard
+ * would. Booking dates never change, so counts and the newest id cover inserts, and the past and
+ * future counts move whenever a booking crosses the current time.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemListVersionDto {
+    private final Long itemCount;
+    private final Long itemsVersion;
+    private final Long bookingCount;
+    private final Long lastBookingId;
+    private final Long pastBookingCount;
+    private final Long futureBookingCount;
+    private final Long commentCount;
+    private final Long lastCommentId;
+    private final Long commentAuthorsVersion;
+}
@@ -2,15 +2,14 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Setter
 @Getter
-@AllArgsConstructor
 public class ItemWithBookingDateDto {
     private long id;
     @NotBlank
@@ -22,4 +21,15 @@ public class ItemWithBookingDateDto {
 
     private LocalDateTime lastBooking;
     private LocalDateTime nextBooking;
+    private List<CommentInfoDto> comments = List.of();
+
+    public ItemWithBookingDateDto(long id, String name, String description, Boolean available,
+                                  LocalDateTime lastBooking, LocalDateTime nextBooking) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.lastBooking = lastBooking;
+        this.nextBooking = nextBooking;
+    }
 }
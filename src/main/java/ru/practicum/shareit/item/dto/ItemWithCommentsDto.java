@@ -2,26 +2,35 @@ package ru.practicum.shareit.item.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
-import ru.practicum.shareit.item.model.Comment;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Immutable, so one cached instance can be handed to every reader.
+ */
 @Getter
-@Setter
-@AllArgsConstructor
 public class ItemWithCommentsDto {
-    private long id;
+    private final long id;
     @NotBlank
-    private String name;
+    private final String name;
     @NotBlank
-    private String description;
+    private final String description;
     @NotNull
-    private Boolean available;
-    private LocalDateTime lastBooking;
-    private LocalDateTime nextBooking;
-    private List<Comment> comments;
+    private final Boolean available;
+    private final LocalDateTime lastBooking;
+    private final LocalDateTime nextBooking;
+    private final List<CommentInfoDto> comments;
+
+    public ItemWithCommentsDto(long id, String name, String description, Boolean available, LocalDateTime lastBooking,
+                               LocalDateTime nextBooking, List<CommentInfoDto> comments) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.lastBooking = lastBooking;
+        this.nextBooking = nextBooking;
+        this.comments = List.copyOf(comments);
+    }
 }
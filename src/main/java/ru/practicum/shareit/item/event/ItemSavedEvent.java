@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Published when an item is created or updated. For updates it also carries the name and
+ * description the item had before, so listeners can find entries that matched the old text.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final Item item;
+    private final String previousName;
+    private final String previousDescription;
+
+    public ItemSavedEvent(Item item) {
+        this(item, null, null);
+    }
+}
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(long itemId);
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentInfoDto(c.item.id, c.id, c.text, u.name, c.created) " +
+           "FROM Comment c JOIN c.user u " +
+           "WHERE c.item.id IN ?1 " +
+           "ORDER BY c.created, c.id")
+    List<CommentInfoDto> findInfoByItemIdIn(Collection<Long> itemIds);
 }
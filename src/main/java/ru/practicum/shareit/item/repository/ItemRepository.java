@@ -1,36 +1,107 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDetailsRow;
+import ru.practicum.shareit.item.dto.ItemListVersionDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDateDto;
-import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available) " +
            "FROM Item i " +
-           "WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
-           "OR LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
-           "AND i.available = TRUE")
-    List<ItemDto> search(String text);
-
-    @Query("SELECT new ru.practicum.shareit.item.dto.ItemWithBookingDateDto(i.id, i.name, i.description, i.available," +
-           "(SELECT MAX(b.start) FROM Booking b WHERE b.item.id = i.id AND b.end < CURRENT_TIMESTAMP)," +
-           "(SELECT MIN(b.start) FROM Booking b WHERE b.item.id = i.id AND b.start > CURRENT_TIMESTAMP)) " +
-           "FROM Item i JOIN i.owner u WHERE u.id = ?1 ")
-    List<ItemWithBookingDateDto> allItemsFromUser(long userId);
-
-    @Query("SELECT new ru.practicum.shareit.item.dto.ItemWithCommentsDto(i.id, i.name, i.description, i.available, " +
-           "(SELECT MIN(b.start) FROM Booking b WHERE b.item.id = i.id AND b.start > CURRENT_TIMESTAMP), " +
-           "(SELECT MIN(b.start) FROM Booking b WHERE b.item.id = i.id AND b.start > CURRENT_TIMESTAMP), " +
-           "null) " +
+           "WHERE (LOWER(i.name) LIKE CONCAT('%', ?1, '%') " +
+           "OR LOWER(i.description) LIKE CONCAT('%', ?1, '%')) " +
+           "AND i.available = TRUE " +
+           "ORDER BY FUNCTION('word_similarity', ?1, LOWER(i.name)) DESC, " +
+           "FUNCTION('word_similarity', ?1, LOWER(i.description)) DESC, i.id")
+    List<ItemDto> searchRanked(String text, Pageable pageable);
+
+    /**
+     * Same ranking as {@link #searchRanked}, minus items with an active booking overlapping [start, end).
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available) " +
+           "FROM Item i " +
+           "WHERE (LOWER(i.name) LIKE CONCAT('%', ?1, '%') " +
+           "OR LOWER(i.description) LIKE CONCAT('%', ?1, '%')) " +
+           "AND i.available = TRUE " +
+           "AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.item.id = i.id " +
+           "AND b.start < ?3 AND b.end > ?2 " +
+           "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED) " +
+           "ORDER BY FUNCTION('word_similarity', ?1, LOWER(i.name)) DESC, " +
+           "FUNCTION('word_similarity', ?1, LOWER(i.description)) DESC, i.id")
+    List<ItemDto> searchRankedFreeBetween(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("SELECT DISTINCT b.item.id " +
+           "FROM Booking b " +
+           "WHERE b.start < ?2 AND b.end > ?1 AND b.item.id IN ?3 " +
+           "AND b.status <> ru.practicum.shareit.booking.model.BookingStatus.REJECTED")
+    Set<Long> findItemIdsBookedBetween(LocalDateTime start, LocalDateTime end, Collection<Long> itemIds);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available) " +
+           "FROM Item i")
+    List<ItemDto> findAllItemDtos();
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id IN ?1")
+    List<Item> findAllWithOwnerByIdIn(Collection<Long> itemIds);
+
+    /**
+     * One pass over the owner's items joined with their bookings, aggregated per item.
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemWithBookingDateDto(i.id, i.name, i.description, i.available, " +
+           "MAX(CASE WHEN b.end < ?2 THEN b.start END), " +
+           "MIN(CASE WHEN b.start > ?2 THEN b.start END)) " +
+           "FROM Item i LEFT JOIN Booking b ON b.item.id = i.id " +
+           "WHERE i.owner.id = ?1 " +
+           "GROUP BY i.id, i.name, i.description, i.available " +
+           "ORDER BY i.id")
+    List<ItemWithBookingDateDto> allItemsFromUser(long userId, LocalDateTime now, Pageable pageable);
+
+    /**
+     * The booking dates are aggregated once in a derived table over the item's bookings and then
+     * repeated on each comment row, instead of being looked up again for every comment.
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDetailsRow(i.id, i.version, i.name, i.description, i.available, " +
+           "bd.lastBooking, bd.nextBooking, bd.nextEnd, c.id, c.text, u.name, c.created) " +
+           "FROM Item i " +
+           "JOIN (SELECT MAX(CASE WHEN b.end < ?2 THEN b.start END) AS lastBooking, " +
+           "MIN(CASE WHEN b.start > ?2 THEN b.start END) AS nextBooking, " +
+           "MIN(CASE WHEN b.end >= ?2 THEN b.end END) AS nextEnd " +
+           "FROM Booking b WHERE b.item.id = ?1) bd ON 1 = 1 " +
+           "LEFT JOIN Comment c ON c.item.id = i.id LEFT JOIN c.user u " +
+           "WHERE i.id = ?1 " +
+           "ORDER BY c.created, c.id")
+    List<ItemDetailsRow> findDetailsRows(long itemId, LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.requestId, i.id, i.name, i.owner.id) " +
            "FROM Item i " +
-           "WHERE i.id = ?1")
-    Optional<ItemWithCommentsDto> findWithCommentsById(long id);
-}
\ No newline at end of file
+           "WHERE i.requestId IN ?1 " +
+           "ORDER BY i.id")
+    List<ItemAnswerDto> findAnswersByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemListVersionDto(COUNT(i), SUM(i.version), " +
+           "(SELECT COUNT(b) FROM Booking b WHERE b.item.owner.id = ?1), " +
+           "(SELECT MAX(b.id) FROM Booking b WHERE b.item.owner.id = ?1), " +
+           "(SELECT COUNT(b) FROM Booking b WHERE b.item.owner.id = ?1 AND b.end < ?2), " +
+           "(SELECT COUNT(b) FROM Booking b WHERE b.item.owner.id = ?1 AND b.start > ?2), " +
+           "(SELECT COUNT(c) FROM Comment c WHERE c.item.owner.id = ?1), " +
+           "(SELECT MAX(c.id) FROM Comment c WHERE c.item.owner.id = ?1), " +
+           "(SELECT SUM(u.version) FROM Comment c JOIN c.user u WHERE c.item.owner.id = ?1)) " +
+           "FROM Item i " +
+           "WHERE i.owner.id = ?1")
+    ItemListVersionDto findListVersion(long userId, LocalDateTime now);
+
+    @Query("SELECT i.available FROM Item i WHERE i.id = ?1")
+    Optional<Boolean> findAvailableById(long itemId);
+}
@@ -0,0 +1,226 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index used when the database has no trigram support (H2). Candidates come from
+ * intersecting the posting lists of the query trigrams and are then verified with a substring match,
+ * so results are the same as the LIKE query.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+    private static final int BOOKING_CHECK_CHUNK = 500;
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ItemDto> items = itemRepository.findAllItemDtos();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(item -> index(new Document(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("InMemoryItemSearchEngine: indexed {} items", items.size());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        Item item = event.getItem();
+        Document document = new Document(new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable()));
+        lock.writeLock().lock();
+        try {
+            unindex(item.getId());
+            index(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        return ranked(text).stream()
+                .skip(offset(pageable))
+                .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                .map(Document::toDto)
+                .toList();
+    }
+
+    /**
+     * Walks the ranked matches in chunks and asks the database which items of each chunk are booked
+     * in the window, stopping once the page is filled. Only matching items are looked up, and the
+     * lookups run outside the index lock.
+     */
+    @Override
+    public List<ItemDto> searchFreeBetween(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<Document> ranked = ranked(text);
+        long wanted = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+        List<ItemDto> free = new ArrayList<>();
+        for (int from = 0; from < ranked.size() && free.size() < wanted; from += BOOKING_CHECK_CHUNK) {
+            List<Document> chunk = ranked.subList(from, Math.min(from + BOOKING_CHECK_CHUNK, ranked.size()));
+            Set<Long> booked = itemRepository.findItemIdsBookedBetween(start, end,
+                    chunk.stream().map(document -> document.id).toList());
+            for (Document document : chunk) {
+                if (free.size() < wanted && !booked.contains(document.id)) {
+                    free.add(document.toDto());
+                }
+            }
+        }
+        return free.subList((int) Math.min(offset(pageable), free.size()), free.size());
+    }
+
+    private static long offset(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+
+    @Override
+    public boolean matches(String text, String name, String description) {
+        return Document.lower(name).contains(text) || Document.lower(description).contains(text);
+    }
+
+    private List<Document> ranked(String text) {
+        lock.readLock().lock();
+        try {
+            return candidates(text).stream()
+                    .map(documents::get)
+                    .filter(document -> document.available && document.matches(text))
+                    .sorted(Comparator.comparingInt((Document document) -> -document.score(text))
+                            .thenComparingLong(document -> document.id))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String text) {
+        Set<String> grams = grams(text);
+        if (grams.isEmpty()) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void index(Document document) {
+        documents.put(document.id, document);
+        Set<String> grams = grams(document.name);
+        grams.addAll(grams(document.description));
+        grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id));
+    }
+
+    private void unindex(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        Set<String> grams = grams(document.name);
+        grams.addAll(grams(document.description));
+        for (String gram : grams) {
+            Set<Long> posting = postings.get(gram);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class Document {
+        private final long id;
+        private final String originalName;
+        private final String originalDescription;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private Document(ItemDto item) {
+            this.id = item.getId();
+            this.originalName = item.getName();
+            this.originalDescription = item.getDescription();
+            this.name = lower(item.getName());
+            this.description = lower(item.getDescription());
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        private boolean matches(String text) {
+            return name.contains(text) || description.contains(text);
+        }
+
+        private int score(String text) {
+            int score = name.contains(text) ? 2 : 0;
+            if (startsWord(name, text) || startsWord(description, text)) {
+                score++;
+            }
+            return score;
+        }
+
+        private ItemDto toDto() {
+            return new ItemDto(id, originalName, originalDescription, available);
+        }
+
+        private static boolean startsWord(String field, String text) {
+            for (int i = field.indexOf(text); i >= 0; i = field.indexOf(text, i + 1)) {
+                if (i == 0 || !Character.isLetterOrDigit(field.charAt(i - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache of search result pages keyed by the lower-cased query text, offset and size. Caffeine evicts by
+ * frequency and recency (W-TinyLFU). After an item is saved, only the entries whose text the search
+ * engine matches against the item's old or new name or description are invalidated. A page whose
+ * load overlapped an invalidation is returned but not cached, because it may have been read before
+ * the commit: puts check the generation under the read lock, and an invalidation bumps it and
+ * sweeps the entries under the write lock, so a put either sees the new generation or is swept.
+ */
+@Component
+public class ItemSearchCache {
+    private final Cache<Key, List<ItemDto>> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ItemSearchEngine itemSearchEngine;
+    private final Counter invalidations;
+
+    public ItemSearchCache(@Value("${shareit.cache.item-search.max-size:10000}") long maxSize,
+                           @Value("${shareit.cache.item-search.ttl:10m}") Duration ttl,
+                           ItemSearchEngine itemSearchEngine,
+                           MeterRegistry meterRegistry) {
+        this.itemSearchEngine = itemSearchEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+        this.invalidations = Counter.builder("shareit.cache.item-search.invalidations")
+                .description("Search result pages invalidated by item writes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Unpaged searches bypass the cache, as their result has no size bound.
+     */
+    public List<ItemDto> get(String text, Pageable pageable, Supplier<List<ItemDto>> loader) {
+        if (pageable.isUnpaged()) {
+            return loader.get();
+        }
+        Key key = new Key(text, pageable.getOffset(), pageable.getPageSize());
+        List<ItemDto> items = cache.getIfPresent(key);
+        if (items != null) {
+            return items;
+        }
+        long seen = generation.get();
+        items = PrimaryReads.call(loader);
+        lock.readLock().lock();
+        try {
+            if (generation.get() == seen) {
+                cache.put(key, items);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return items;
+    }
+
+    /**
+     * Runs after the search engines' own listeners, so a page cached once this returns already
+     * reflects the change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        Item item = event.getItem();
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            cache.asMap().keySet().removeIf(key -> {
+                boolean matches = itemSearchEngine.matches(key.text, item.getName(), item.getDescription())
+                        || itemSearchEngine.matches(key.text, event.getPreviousName(), event.getPreviousDescription());
+                if (matches) {
+                    invalidations.increment();
+                }
+                return matches;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final String text;
+        private final long offset;
+        private final int size;
+    }
+}
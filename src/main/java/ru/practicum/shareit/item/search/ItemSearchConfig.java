@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+@Slf4j
+@Configuration
+public class ItemSearchConfig {
+    @Bean
+    public ItemSearchEngine itemSearchEngine(@Value("${spring.datasource.url:}") String url, ItemRepository itemRepository) {
+        if (DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL) {
+            log.info("ItemSearchConfig: using PostgreSQL trigram search");
+            return new PostgresItemSearchEngine(itemRepository);
+        }
+        log.info("ItemSearchConfig: using in-memory trigram index for search");
+        return new InMemoryItemSearchEngine(itemRepository);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    /**
+     * Finds available items whose name or description contains the lower-cased text,
+     * best matches first.
+     */
+    List<ItemDto> search(String text, Pageable pageable);
+
+    /**
+     * Like {@link #search}, but only returns items without a WAITING or APPROVED booking
+     * overlapping [start, end).
+     */
+    List<ItemDto> searchFreeBetween(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    /**
+     * Whether an item with this name and description can be found by the lower-cased text. May
+     * answer true for items the search would not return, never false for one it would.
+     */
+    boolean matches(String text, String name, String description);
+}
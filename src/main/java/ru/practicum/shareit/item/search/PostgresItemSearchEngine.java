@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Relies on the pg_trgm GIN indexes from the V3 PostgreSQL migration for the substring match
+ * and ranks by trigram word similarity.
+ */
+@RequiredArgsConstructor
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        return itemRepository.searchRanked(text, pageable);
+    }
+
+    @Override
+    public List<ItemDto> searchFreeBetween(String text, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return itemRepository.searchRankedFreeBetween(text, start, end, pageable);
+    }
+
+    /**
+     * Conservative: LIKE treats {@code %}, {@code _} and {@code \} in the text as patterns, so texts
+     * containing them always match. The database lower-cases by its own collation, so fields are
+     * compared lower-cased both as a whole and per code point.
+     */
+    @Override
+    public boolean matches(String text, String name, String description) {
+        if (text.indexOf('%') >= 0 || text.indexOf('_') >= 0 || text.indexOf('\\') >= 0) {
+            return true;
+        }
+        return contains(name, text) || contains(description, text);
+    }
+
+    private static boolean contains(String field, String text) {
+        if (field == null) {
+            return false;
+        }
+        if (field.toLowerCase(Locale.ROOT).contains(text)) {
+            return true;
+        }
+        StringBuilder lower = new StringBuilder(field.length());
+        field.codePoints().map(Character::toLowerCase).forEach(lower::appendCodePoint);
+        return lower.indexOf(text) >= 0;
+    }
+}
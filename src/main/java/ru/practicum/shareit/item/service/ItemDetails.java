@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item details as cached: the response body, its entity tag, and the moment its booking dates go
+ * stale, which is when the next booking starts or a running or upcoming booking ends.
+ * {@code staleAt} is null when the item has no such booking.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemDetails {
+    private final ItemWithCommentsDto item;
+    private final String tag;
+    private final LocalDateTime staleAt;
+}
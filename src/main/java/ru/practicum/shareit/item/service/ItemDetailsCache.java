@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.event.CommentSavedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Cache of assembled item details. Entries are invalidated after commit by item, comment and
+ * booking events, and expire on their own once the next booking starts or a running or upcoming
+ * booking ends, since either moves the last/next booking dates. Caffeine computes a key atomically and an invalidation waits for an
+ * in-flight load of the same key, so a load that read pre-commit data is dropped by the
+ * invalidation that follows the commit. Loads read from the primary, since a replica could still
+ * return the data an invalidation just dropped.
+ */
+@Component
+public class ItemDetailsCache {
+    private final Cache<Long, ItemDetails> cache;
+
+    public ItemDetailsCache(@Value("${shareit.cache.item-details.max-size:10000}") long maxSize,
+                            @Value("${shareit.cache.item-details.ttl:5m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new BookingBoundaryExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetails");
+    }
+
+    public ItemDetails get(long itemId, Function<Long, ItemDetails> loader) {
+        return cache.get(itemId, id -> PrimaryReads.call(() -> loader.apply(id)));
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        cache.invalidate(event.getItem().getId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentSaved(CommentSavedEvent event) {
+        cache.invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        cache.invalidate(event.getItemId());
+    }
+
+    private static final class BookingBoundaryExpiry implements Expiry<Long, ItemDetails> {
+        private final Duration ttl;
+
+        private BookingBoundaryExpiry(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemDetails details, long currentTime) {
+            Duration expiry = ttl;
+            if (details.getStaleAt() != null) {
+                Duration untilStale = Duration.between(LocalDateTime.now(), details.getStaleAt());
+                expiry = untilStale.isNegative() ? Duration.ZERO : min(untilStale, ttl);
+            }
+            return expiry.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemDetails details, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, details, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemDetails details, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static Duration min(Duration first, Duration second) {
+            return first.compareTo(second) < 0 ? first : second;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.item.dto.CommentInfoDto;
+import ru.practicum.shareit.item.dto.ItemDetailsRow;
+import ru.practicum.shareit.item.dto.ItemWithCommentsDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads an item with its booking dates and comments in one statement and folds the rows into the
+ * details DTO. The entity tag is built from the same rows, so it always describes the body.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemDetailsLoader {
+    private final ItemRepository itemRepository;
+
+    public Optional<ItemDetails> load(long itemId) {
+        List<ItemDetailsRow> rows = itemRepository.findDetailsRows(itemId, LocalDateTime.now());
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        List<CommentInfoDto> comments = rows.stream()
+                .filter(row -> row.getCommentId() != null)
+                .map(row -> new CommentInfoDto(itemId, row.getCommentId(), row.getCommentText(), row.getAuthorName(),
+                        row.getCommentCreated()))
+                .toList();
+        ItemDetailsRow item = rows.get(0);
+        ItemWithCommentsDto details = new ItemWithCommentsDto(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getLastBooking(), item.getNextBooking(), comments);
+        return Optional.of(new ItemDetails(details, tag(item, comments), earliest(item.getNextBooking(), item.getNextEnd())));
+    }
+
+    private static String tag(ItemDetailsRow item, List<CommentInfoDto> comments) {
+        List<Object> parts = new ArrayList<>(Arrays.asList("item", item.getId(), item.getVersion(),
+                item.getLastBooking(), item.getNextBooking()));
+        comments.forEach(comment -> {
+            parts.add(comment.getId());
+            parts.add(comment.getAuthorName());
+        });
+        return EntityTags.of(parts.toArray());
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface ItemService {
     Item save(ItemDto itemDto, long userId);
 
     Item update(long itemId, UpdateItemDto itemDto, long userId);
 
-    ItemWithCommentsDto findById(long itemId);
+    /**
+     * Returns null when {@code notModified} accepts the entity tag of the item.
+     */
+    ItemWithCommentsDto findById(long itemId, Predicate<String> notModified);
 
-    List<ItemWithBookingDateDto> allItemsFromUser(long userId);
+    /**
+     * Returns null when {@code notModified} accepts the entity tag of the page.
+     */
+    List<ItemWithBookingDateDto> allItemsFromUser(long userId, Pageable page, Predicate<String> notModified);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    List<FreeIntervalDto> findAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDto saveComment(Comment comment, long itemId, long userId);
 }
@@ -1,50 +1,87 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.exception.booking.InvalidBookingPeriodException;
 import ru.practicum.shareit.exception.item.ItemAccessDeniedException;
 import ru.practicum.shareit.exception.item.ItemNotFoundException;
 import ru.practicum.shareit.exception.item.ItemUnavailableException;
+import ru.practicum.shareit.exception.request.ItemRequestNotFoundException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.CommentSavedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.tracing.RequestTrace;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public Item save(ItemDto itemDto, long userId) {
-        log.info("ItemServiceImpl: attempting to save item for user with id: {}", userId);
+        log.debug("ItemServiceImpl: attempting to save item for user with id: {}", userId);
 
-        User user = userService.findById(userId);
-        log.info("ItemServiceImpl: found user with id: {}", userId);
+        User user = RequestTrace.step("userLookup", () -> userService.findById(userId));
+        log.debug("ItemServiceImpl: found user with id: {}", userId);
+
+        if (itemDto.getRequestId() != null
+                && !RequestTrace.step("requestLookup", () -> itemRequestRepository.existsById(itemDto.getRequestId()))) {
+            log.warn("ItemServiceImpl: item request not found with id: {}", itemDto.getRequestId());
+            throw new ItemRequestNotFoundException("Item request with id " + itemDto.getRequestId() + " not found");
+        }
 
         Item item = ItemMapper.dtoToItem(itemDto);
-        log.info("ItemServiceImpl: mapping ItemDto to Item for user with id: {}", userId);
+        log.debug("ItemServiceImpl: mapping ItemDto to Item for user with id: {}", userId);
 
         item.setOwner(user);
-        log.info("ItemServiceImpl: setting owner for item: {} to user with id: {}", item.getId(), userId);
+        log.debug("ItemServiceImpl: setting owner for item: {} to user with id: {}", item.getId(), userId);
 
-        Item savedItem = itemRepository.save(item);
-        log.info("ItemServiceImpl: successfully saved item with id: {}", savedItem.getId());
+        Item savedItem = RequestTrace.step("save", () -> itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem));
+        log.debug("ItemServiceImpl: successfully saved item with id: {}", savedItem.getId());
 
         return savedItem;
     }
@@ -52,26 +89,29 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public Item update(long itemId, UpdateItemDto itemDto, long userId) {
-        log.info("ItemServiceImpl: attempting to update item with id: {}", itemId);
+        log.debug("ItemServiceImpl: attempting to update item with id: {}", itemId);
 
-        Item item = itemRepository.findById(itemId)
+        Item item = RequestTrace.step("itemLookup", () -> itemRepository.findById(itemId))
                 .orElseThrow(() -> {
                     log.warn("ItemServiceImpl: item not found with id: {}", itemId);
                     return new ItemNotFoundException("Item with id " + itemId + " not found");
                 });
 
-        log.info("ItemServiceImpl: found item with id: {}", itemId);
+        log.debug("ItemServiceImpl: found item with id: {}", itemId);
 
         if (item.getOwner().getId() != userId) {
             log.warn("ItemServiceImpl: access denied for user with id: {} to item with id: {}", userId, itemId);
             throw new ItemAccessDeniedException("Access denied, you didn't create this item");
         }
 
-        log.info("ItemServiceImpl: updating details for item with id: {}", itemId);
+        log.debug("ItemServiceImpl: updating details for item with id: {}", itemId);
+        String previousName = item.getName();
+        String previousDescription = item.getDescription();
         updateItemDetails(item, itemDto);
 
-        Item updatedItem = itemRepository.save(item);
-        log.info("ItemServiceImpl: successfully updated item with id: {}", updatedItem.getId());
+        Item updatedItem = RequestTrace.step("save", () -> itemRepository.save(item));
+        eventPublisher.publishEvent(new ItemSavedEvent(updatedItem, previousName, previousDescription));
+        log.debug("ItemServiceImpl: successfully updated item with id: {}", updatedItem.getId());
 
         return updatedItem;
     }
@@ -84,84 +124,156 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public ItemWithCommentsDto findById(long itemId) {
-        log.info("ItemServiceImpl: attempting to find item with id: {}", itemId);
+    public ItemWithCommentsDto findById(long itemId, Predicate<String> notModified) {
+        log.debug("ItemServiceImpl: attempting to find item with id: {}", itemId);
+
+        ItemDetails details = RequestTrace.step("itemDetails", () -> itemDetailsCache.get(itemId, this::loadItemDetails));
+        if (notModified.test(details.getTag())) {
+            log.debug("ItemServiceImpl: item with id: {} not modified", itemId);
+            return null;
+        }
+
+        log.debug("ItemServiceImpl: successfully retrieved item with id: {} and its comments", itemId);
+        return details.getItem();
+    }
 
-        ItemWithCommentsDto itemWithCommentsDto = itemRepository.findWithCommentsById(itemId)
+    private ItemDetails loadItemDetails(long itemId) {
+        ItemDetails details = itemDetailsLoader.load(itemId)
                 .orElseThrow(() -> {
                     log.warn("ItemServiceImpl: item not found with id: {}", itemId);
                     return new ItemNotFoundException("Item with id " + itemId + " not found");
                 });
 
-        log.info("ItemServiceImpl: found item with id: {}", itemId);
-
-        log.info("ItemServiceImpl: retrieving comments for item with id: {}", itemId);
-        itemWithCommentsDto.setComments(commentRepository.findByItemId(itemId));
-
-        log.info("ItemServiceImpl: successfully retrieved item with id: {} and its comments", itemId);
-        return itemWithCommentsDto;
+        log.debug("ItemServiceImpl: found item with id: {} and {} comments", itemId, details.getItem().getComments().size());
+        return details;
     }
 
+    /**
+     * Reads a cheap summary of the owner's items first and only loads the page when the tag built
+     * from it does not match. Repeatable read makes the summary and the page one snapshot.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public List<ItemWithBookingDateDto> allItemsFromUser(long userId) {
-        log.info("ItemServiceImpl: attempting to retrieve all items for user with id: {}", userId);
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<ItemWithBookingDateDto> allItemsFromUser(long userId, Pageable page, Predicate<String> notModified) {
+        log.debug("ItemServiceImpl: attempting to retrieve all items for user with id: {}", userId);
+
+        RequestTrace.step("userLookup", () -> userService.findById(userId));
+        log.debug("ItemServiceImpl: found user with id: {}", userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        ItemListVersionDto version = RequestTrace.step("versionQuery", () -> itemRepository.findListVersion(userId, now));
+        if (notModified.test(itemListTag(userId, page, version))) {
+            log.debug("ItemServiceImpl: items of user with id: {} not modified", userId);
+            return null;
+        }
 
-        userService.findById(userId);
-        log.info("ItemServiceImpl: found user with id: {}", userId);
+        List<ItemWithBookingDateDto> items = RequestTrace.step("itemQuery",
+                () -> itemRepository.allItemsFromUser(userId, now, page));
+        if (items.isEmpty()) {
+            return items;
+        }
 
-        List<ItemWithBookingDateDto> items = itemRepository.allItemsFromUser(userId);
-        log.info("ItemServiceImpl: successfully retrieved {} items for user with id: {}", items.size(), userId);
+        List<Long> itemIds = items.stream().map(ItemWithBookingDateDto::getId).toList();
+        Map<Long, List<CommentInfoDto>> comments = RequestTrace.step("commentQuery", () -> commentRepository.findInfoByItemIdIn(itemIds))
+                .stream()
+                .collect(Collectors.groupingBy(CommentInfoDto::getItemId));
+        items.forEach(item -> item.setComments(comments.getOrDefault(item.getId(), List.of())));
+        log.debug("ItemServiceImpl: successfully retrieved {} items for user with id: {}", items.size(), userId);
 
         return items;
     }
 
+    private static String itemListTag(long userId, Pageable page, ItemListVersionDto version) {
+        return EntityTags.of("items", userId, page.isPaged() ? page.getOffset() + "+" + page.getPageSize() : "all",
+                version.getItemCount(), version.getItemsVersion(), version.getBookingCount(), version.getLastBookingId(),
+                version.getPastBookingCount(), version.getFutureBookingCount(), version.getCommentCount(),
+                version.getLastCommentId(), version.getCommentAuthorsVersion());
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
-        log.info("ItemServiceImpl: attempting to search for items with text: {}", text);
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, Pageable page) {
+        log.debug("ItemServiceImpl: attempting to search for items with text: {}, start: {}, end: {}", text, start, end);
 
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            log.warn("ItemServiceImpl: invalid search window - start: {}, end: {}", start, end);
+            throw new InvalidBookingPeriodException("Search window needs both start and end, with start before end");
+        }
         if (text.isBlank()) {
-            log.info("ItemServiceImpl: search text is blank, returning empty list");
+            log.debug("ItemServiceImpl: search text is blank, returning empty list");
             return List.of();
         }
 
-        List<ItemDto> items = itemRepository.search(text.toLowerCase());
-        log.info("ItemServiceImpl: successfully found {} items for search text: {}", items.size(), text);
+        String query = text.toLowerCase(Locale.ROOT);
+        List<ItemDto> items = RequestTrace.step("search", () -> start == null
+                ? itemSearchCache.get(query, page, () -> itemSearchEngine.search(query, page))
+                : itemSearchEngine.searchFreeBetween(query, start, end, page));
+        log.debug("ItemServiceImpl: successfully found {} items for search text: {}", items.size(), text);
 
         return items;
     }
 
+    /**
+     * Intervals loaded here are cached and shared with the conflict check, so the transaction is
+     * pinned to the primary with {@link PrimaryReads}. The hint is set before the item lookup because
+     * the route is fixed by the transaction's first statement.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeIntervalDto> findAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("ItemServiceImpl: attempting to find availability of item with id: {} from {} to {}", itemId, from, to);
+
+        if (!from.isBefore(to)) {
+            log.warn("ItemServiceImpl: invalid availability window for item with id: {} - from is not before to", itemId);
+            throw new InvalidBookingPeriodException("Start of the window must be before its end");
+        }
+        return PrimaryReads.call(() -> {
+            boolean available = RequestTrace.step("itemLookup", () -> itemRepository.findAvailableById(itemId)).orElseThrow(() -> {
+                log.warn("ItemServiceImpl: item not found with id: {}", itemId);
+                return new ItemNotFoundException("Item with id " + itemId + " not found");
+            });
+            if (!available) {
+                log.debug("ItemServiceImpl: item with id: {} is not available for booking", itemId);
+                return List.of();
+            }
+
+            List<FreeIntervalDto> freeIntervals = RequestTrace.step("availability", () -> bookingIntervalIndex.freeIntervals(itemId, from, to));
+            log.debug("ItemServiceImpl: found {} free intervals for item with id: {}", freeIntervals.size(), itemId);
+            return freeIntervals;
+        });
+    }
+
     @Override
     @Transactional
     public CommentDto saveComment(Comment comment, long itemId, long userId) {
-        log.info("ItemServiceImpl: attempting to save comment for item with id: {} by user with id: {}", itemId, userId);
+        log.debug("ItemServiceImpl: attempting to save comment for item with id: {} by user with id: {}", itemId, userId);
 
-        User user = userService.findById(userId);
-        log.info("ItemServiceImpl: found user with id: {}", userId);
+        User user = RequestTrace.step("userLookup", () -> userService.findById(userId));
+        log.debug("ItemServiceImpl: found user with id: {}", userId);
 
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+        Item item = RequestTrace.step("itemLookup", () -> itemRepository.findById(itemId)).orElseThrow(() -> {
             log.warn("ItemServiceImpl: item not found with id: {}", itemId);
             return new ItemNotFoundException("Item with id " + itemId + " not found");
         });
 
-        log.info("ItemServiceImpl: found item with id: {}", itemId);
+        log.debug("ItemServiceImpl: found item with id: {}", itemId);
 
-        verifyBookingExists(itemId, userId);
-        log.info("ItemServiceImpl: verified that booking exists for item with id: {} and user with id: {}", itemId, userId);
+        RequestTrace.step("bookingCheck", () -> verifyBookingExists(itemId, userId));
+        log.debug("ItemServiceImpl: verified that booking exists for item with id: {} and user with id: {}", itemId, userId);
 
         comment.setUser(user);
         comment.setItem(item);
         comment.setCreated(LocalDate.now());
 
-        CommentDto savedCommentDto = CommentMapper.toCommentDto(commentRepository.save(comment));
-        log.info("ItemServiceImpl: successfully saved comment for item with id: {} by user with id: {}", itemId, userId);
+        CommentDto savedCommentDto = CommentMapper.toCommentDto(RequestTrace.step("save", () -> commentRepository.save(comment)));
+        eventPublisher.publishEvent(new CommentSavedEvent(itemId));
+        log.debug("ItemServiceImpl: successfully saved comment for item with id: {} by user with id: {}", itemId, userId);
 
         return savedCommentDto;
     }
 
-    private void verifyBookingExists(long itemId, long userId) {
-        bookingRepository.findByItemIdAndBookerIdAndEndBeforeNow(itemId, userId)
+    private Booking verifyBookingExists(long itemId, long userId) {
+        return bookingRepository.findByItemIdAndBookerIdAndEndBeforeNow(itemId, userId)
                 .orElseThrow(() -> new ItemUnavailableException("Access denied: you didn't create a booking for this item"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.common.annotation.ValueExpressionResolver;
+import io.micrometer.common.annotation.ValueResolver;
+import io.micrometer.core.aop.MeterTagAnnotationHandler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public TimedAspect timedAspect() {
+        TimedAspect timedAspect = new TimedAspect(meterRegistry);
+        timedAspect.setMeterTagAnnotationHandler(new MeterTagAnnotationHandler(
+                type -> (ValueResolver) String::valueOf,
+                type -> (ValueExpressionResolver) (expression, parameter) -> String.valueOf(parameter)));
+        return timedAspect;
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    /**
+     * Applied by Spring Boot to the application task executor, which also runs streamed MVC responses.
+     * Boot takes a single decorator, so this one also carries the primary-read route hint.
+     */
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return task -> SqlStatementCounter.propagate(PrimaryReads.propagate(task));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementMetricsInterceptor(meterRegistry));
+    }
+}
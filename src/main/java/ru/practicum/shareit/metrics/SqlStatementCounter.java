@@ -0,0 +1,75 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts every SQL statement Hibernate prepares, in total and for the current request. The request
+ * count is bound to the thread serving the request and can be carried to another thread with
+ * {@link #propagate}, so statements of async work (a streamed response) are counted too.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> REQUEST_COUNT = new ThreadLocal<>();
+
+    private final Counter total;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        this.total = Counter.builder("shareit.sql.statements")
+                .description("SQL statements prepared by Hibernate")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        total.increment();
+        AtomicInteger count = REQUEST_COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Starts a new count on the current thread and returns it.
+     */
+    public static AtomicInteger begin() {
+        AtomicInteger count = new AtomicInteger();
+        REQUEST_COUNT.set(count);
+        return count;
+    }
+
+    public static void bind(AtomicInteger count) {
+        REQUEST_COUNT.set(count);
+    }
+
+    public static void unbind() {
+        REQUEST_COUNT.remove();
+    }
+
+    public static int current() {
+        AtomicInteger count = REQUEST_COUNT.get();
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Wraps a task so it adds to the count of the thread that submitted it.
+     */
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger count = REQUEST_COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = REQUEST_COUNT.get();
+            REQUEST_COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                REQUEST_COUNT.set(previous);
+            }
+        };
+    }
+}
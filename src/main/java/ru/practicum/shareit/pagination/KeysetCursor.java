@@ -0,0 +1,48 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.pagination.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a feed ordered by (timestamp, id), such as bookings by start or requests by
+ * creation time. Encoded as an opaque string for clients.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    public static final KeysetCursor FIRST_DESCENDING = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+    public static final KeysetCursor FIRST_ASCENDING = new KeysetCursor(LocalDateTime.of(1900, 1, 1, 0, 0), 0L);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final long id;
+
+    /**
+     * Position before the first row of a feed in the given sort direction.
+     */
+    public static KeysetCursor first(boolean descending) {
+        return descending ? FIRST_DESCENDING : FIRST_ASCENDING;
+    }
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pageable for the {@code from}/{@code size} parameters of the API. Unlike PageRequest the offset
+ * is kept as given, so {@code from} does not have to be a multiple of {@code size}.
+ */
+@ToString
+@EqualsAndHashCode
+public class OffsetPageRequest implements Pageable {
+    private final long offset;
+    private final int limit;
+
+    private OffsetPageRequest(long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public static OffsetPageRequest of(long offset, int limit) {
+        return new OffsetPageRequest(offset, limit);
+    }
+
+    /**
+     * Paging is opt-in for endpoints that returned everything before it was added: without both
+     * parameters the result is unpaged, otherwise a missing one takes its default.
+     */
+    public static Pageable ofOptional(Integer from, Integer size, int defaultSize) {
+        if (from == null && size == null) {
+            return Pageable.unpaged();
+        }
+        return of(from == null ? 0 : from, size == null ? defaultSize : size);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + limit, limit);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - limit), limit) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, limit);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * limit, limit);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -1,12 +1,77 @@
 package ru.practicum.shareit.request.controller;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Slf4j
+@Validated
 @RestController
+@RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String X_NEXT_CURSOR = "X-Next-Cursor";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+    public static final int MAX_PAGE_SIZE = 500;
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto save(@RequestHeader(X_SHARER_USER_ID) long userId,
+                               @RequestBody @Valid ItemRequestSaveDto itemRequestSaveDto) {
+        log.debug("ItemRequestController: save is called by userId={}", userId);
+        ItemRequestDto itemRequest = itemRequestService.save(userId, itemRequestSaveDto);
+        log.debug("ItemRequestController: item request saved successfully with requestId={}", itemRequest.getId());
+        return itemRequest;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ItemRequestDto>> findOwn(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) int size) {
+        log.debug("ItemRequestController: findOwn is called by userId={} with cursor={}, size={}", userId, cursor, size);
+        List<ItemRequestDto> requests = itemRequestService.findOwn(userId, decodeCursor(cursor), size);
+        log.debug("ItemRequestController: findOwn successful for userId={}, totalRequests={}", userId, requests.size());
+        return toPage(requests, size);
+    }
+
+    @GetMapping("all")
+    public ResponseEntity<List<ItemRequestDto>> findOthers(@RequestHeader(X_SHARER_USER_ID) long userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive @Max(MAX_PAGE_SIZE) int size) {
+        log.debug("ItemRequestController: findOthers is called by userId={} with cursor={}, size={}", userId, cursor, size);
+        List<ItemRequestDto> requests = itemRequestService.findOthers(userId, decodeCursor(cursor), size);
+        log.debug("ItemRequestController: findOthers successful for userId={}, totalRequests={}", userId, requests.size());
+        return toPage(requests, size);
+    }
+
+    private KeysetCursor decodeCursor(String cursor) {
+        return cursor == null ? null : KeysetCursor.decode(cursor);
+    }
+
+    private KeysetCursor cursorAfter(List<ItemRequestDto> page) {
+        ItemRequestDto last = page.get(page.size() - 1);
+        return new KeysetCursor(last.getCreated(), last.getId());
+    }
+
+    private ResponseEntity<List<ItemRequestDto>> toPage(List<ItemRequestDto> requests, int size) {
+        if (requests.size() < size) {
+            return ResponseEntity.ok(requests);
+        }
+        String nextCursor = cursorAfter(requests).encode();
+        return ResponseEntity.ok()
+                .header(X_NEXT_CURSOR, nextCursor)
+                .body(requests);
+    }
 }
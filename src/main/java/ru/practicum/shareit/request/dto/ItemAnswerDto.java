@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An item offered in answer to a request.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemAnswerDto {
+    @JsonIgnore
+    private final long requestId;
+    private final long id;
+    private final String name;
+    private final long ownerId;
+}
@@ -1,7 +1,22 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
 public class ItemRequestDto {
+    private long id;
+    private String description;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items = List.of();
+
+    public ItemRequestDto(long id, String description, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+    }
 }
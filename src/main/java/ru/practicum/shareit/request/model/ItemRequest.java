@@ -1,7 +1,27 @@
 package ru.practicum.shareit.request.model;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "item_requests")
 public class ItemRequest {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_id_seq")
+    @SequenceGenerator(name = "item_requests_id_seq", sequenceName = "item_requests_id_seq", allocationSize = 50)
+    private long id;
+
+    @NotBlank
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requestor", referencedColumnName = "id")
+    private User requestor;
+
+    private LocalDateTime created;
 }
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+           "FROM ItemRequest r " +
+           "WHERE r.requestor.id = ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+           "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestDto> findOwnPage(long userId, LocalDateTime created, long id, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+           "FROM ItemRequest r " +
+           "WHERE r.requestor.id <> ?1 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+           "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestDto> findOthersPage(long userId, LocalDateTime created, long id, Pageable pageable);
+}
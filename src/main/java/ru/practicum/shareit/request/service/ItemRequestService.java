@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto save(long userId, ItemRequestSaveDto itemRequestSaveDto);
+
+    List<ItemRequestDto> findOwn(long userId, KeysetCursor cursor, int size);
+
+    List<ItemRequestDto> findOthers(long userId, KeysetCursor cursor, int size);
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.tracing.RequestTrace;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Timed(value = "shareit.service", histogram = true)
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+
+    @Override
+    @Transactional
+    public ItemRequestDto save(long userId, ItemRequestSaveDto itemRequestSaveDto) {
+        log.debug("ItemRequestServiceImpl: attempting to save item request for user with id: {}", userId);
+
+        User user = RequestTrace.step("userLookup", () -> userService.findById(userId));
+
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(itemRequestSaveDto.getDescription());
+        itemRequest.setRequestor(user);
+        itemRequest.setCreated(LocalDateTime.now());
+
+        ItemRequest savedRequest = RequestTrace.step("save", () -> itemRequestRepository.save(itemRequest));
+        log.debug("ItemRequestServiceImpl: successfully saved item request with id: {}", savedRequest.getId());
+
+        return new ItemRequestDto(savedRequest.getId(), savedRequest.getDescription(), savedRequest.getCreated());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOwn(long userId, KeysetCursor cursor, int size) {
+        log.debug("ItemRequestServiceImpl: attempting to find own item requests for user with id: {}", userId);
+
+        RequestTrace.step("userLookup", () -> userService.findById(userId));
+        KeysetCursor position = cursor == null ? KeysetCursor.FIRST_DESCENDING : cursor;
+        List<ItemRequestDto> requests = RequestTrace.step("requestQuery", () -> itemRequestRepository.findOwnPage(
+                userId, position.getTimestamp(), position.getId(), PageRequest.of(0, size)));
+        attachItems(requests);
+
+        log.debug("ItemRequestServiceImpl: found {} own item requests for user with id: {}", requests.size(), userId);
+        return requests;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOthers(long userId, KeysetCursor cursor, int size) {
+        log.debug("ItemRequestServiceImpl: attempting to find item requests of other users for user with id: {}", userId);
+
+        RequestTrace.step("userLookup", () -> userService.findById(userId));
+        KeysetCursor position = cursor == null ? KeysetCursor.FIRST_DESCENDING : cursor;
+        List<ItemRequestDto> requests = RequestTrace.step("requestQuery", () -> itemRequestRepository.findOthersPage(
+                userId, position.getTimestamp(), position.getId(), PageRequest.of(0, size)));
+        attachItems(requests);
+
+        log.debug("ItemRequestServiceImpl: found {} item requests of other users for user with id: {}", requests.size(), userId);
+        return requests;
+    }
+
+    /**
+     * Loads the answers for the whole page with one query.
+     */
+    private void attachItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).toList();
+        Map<Long, List<ItemAnswerDto>> answers = RequestTrace.step("answerQuery", () -> itemRepository.findAnswersByRequestIdIn(requestIds))
+                .stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+        requests.forEach(request -> request.setItems(answers.getOrDefault(request.getId(), List.of())));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Timings of the sub-steps of one sampled request. The trace is bound to the request thread by
+ * {@link RequestTracingFilter}; for requests that were not sampled {@link #step} only runs the action.
+ */
+public final class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final List<String> stepNames = new ArrayList<>(8);
+    private final List<Long> stepNanos = new ArrayList<>(8);
+
+    private RequestTrace() {
+    }
+
+    public static <T> T step(String name, Supplier<T> action) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            trace.stepNames.add(name);
+            trace.stepNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    static RequestTrace begin() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    String toJson(String method, String uri, int status) {
+        StringBuilder json = new StringBuilder(128)
+                .append("{\"method\":\"").append(method)
+                .append("\",\"uri\":\"").append(uri)
+                .append("\",\"status\":").append(status)
+                .append(",\"durationMs\":").append(millis(System.nanoTime() - startNanos))
+                .append(",\"steps\":[");
+        for (int i = 0; i < stepNames.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"").append(stepNames.get(i))
+                    .append("\",\"durationMs\":").append(millis(stepNanos.get(i))).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces a sampled share of requests and writes each one as a single JSON line to the
+ * {@code shareit.trace} logger. Sampling is skipped entirely while that logger is disabled.
+ */
+@Component
+public class RequestTracingFilter extends OncePerRequestFilter {
+    private static final Logger TRACE_LOG = LoggerFactory.getLogger("shareit.trace");
+
+    private final double sampleRate;
+
+    public RequestTracingFilter(@Value("${shareit.tracing.sample-rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!TRACE_LOG.isInfoEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTrace trace = RequestTrace.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? request.getRequestURI() : pattern.toString();
+            TRACE_LOG.info(trace.toJson(request.getMethod(), uri, response.getStatus()));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -19,40 +20,44 @@ public class UserController {
 
     @PostMapping
     public User save(@RequestBody @Valid User user) {
-        log.info("UserController: create is called");
+        log.debug("UserController: create is called");
         user = userService.save(user);
-        log.info("UserController: user created successfully");
+        log.debug("UserController: user created successfully");
         return user;
     }
 
     @GetMapping("{userId}")
-    public User findById(@PathVariable long userId) {
-        log.info("UserController: getById is called");
-        User user = userService.findById(userId);
-        log.info("UserController: user with id {} successfully received", userId);
+    public User findById(@PathVariable long userId, WebRequest request) {
+        log.debug("UserController: getById is called");
+        User user = userService.findById(userId, request::checkNotModified);
+        if (user == null) {
+            log.debug("UserController: user with id {} not modified", userId);
+            return null;
+        }
+        log.debug("UserController: user with id {} successfully received", userId);
         return user;
     }
 
     @GetMapping
     public List<User> getAll() {
-        log.info("UserController: getAll is called");
+        log.debug("UserController: getAll is called");
         List<User> users = userService.findAll();
-        log.info("UserController: all users successfully received");
+        log.debug("UserController: all users successfully received");
         return users;
     }
 
     @PatchMapping("{userId}")
     public User update(@PathVariable long userId, @Valid @RequestBody UserDto userDto) {
-        log.info("UserController: update is called");
+        log.debug("UserController: update is called");
         User user = userService.update(userId, userDto);
-        log.info("UserController: updated successfully");
+        log.debug("UserController: updated successfully");
         return user;
     }
 
     @DeleteMapping("{userId}")
     public void deleteById(@PathVariable long userId) {
-        log.info("UserController: deleteById is called");
+        log.debug("UserController: deleteById is called");
         userService.deleteById(userId);
-        log.info("UserController: deleted by id {} successfully", userId);
+        log.debug("UserController: deleted by id {} successfully", userId);
     }
 }
\ No newline at end of file
@@ -5,10 +5,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    @Query("SELECT DISTINCT u.email FROM User u")
-    Set<String> findDistinctEmails();
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IS NOT NULL")
+    Stream<String> streamAllEmails();
 }
\ No newline at end of file
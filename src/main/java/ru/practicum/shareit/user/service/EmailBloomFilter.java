@@ -0,0 +1,117 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filter over normalized user emails. A negative answer is exact, so the uniqueness
+ * check only goes to the database when the filter reports a possible match. Counters make removal
+ * on update and delete possible.
+ */
+@Component
+public class EmailBloomFilter {
+    private static final int MAX_COUNTER = Byte.MAX_VALUE;
+
+    private final byte[] counters;
+    private final int hashFunctions;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean ready;
+
+    public EmailBloomFilter(@Value("${shareit.users.email-filter.expected-emails:100000}") int expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-probability:0.01}") double fpp) {
+        int size = (int) Math.ceil(-expectedEmails * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.counters = new byte[Math.max(size, Long.SIZE)];
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters.length / expectedEmails * Math.log(2)));
+    }
+
+    public boolean mightContain(String email) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return true;
+            }
+            long hash = hash(email);
+            for (int i = 0; i < hashFunctions; i++) {
+                if (counters[index(hash, i)] == 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(String email) {
+        lock.writeLock().lock();
+        try {
+            increment(email);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String email) {
+        lock.writeLock().lock();
+        try {
+            long hash = hash(email);
+            for (int i = 0; i < hashFunctions; i++) {
+                int index = index(hash, i);
+                // a saturated counter no longer knows how many emails share it, so it stays set
+                if (counters[index] > 0 && counters[index] < MAX_COUNTER) {
+                    counters[index]--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Stream<String> emails) {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(counters, (byte) 0);
+            emails.forEach(this::increment);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void increment(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashFunctions; i++) {
+            int index = index(hash, i);
+            if (counters[index] < MAX_COUNTER) {
+                counters[index]++;
+            }
+        }
+    }
+
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int combined = h1 + i * h2;
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
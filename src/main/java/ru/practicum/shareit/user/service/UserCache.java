@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of users by id. Entries are immutable snapshots and every caller gets its
+ * own User copy, so nothing outside the cache can change a cached value. Each entry carries the
+ * row version: a loaded row only replaces an older version, and a committed write leaves a
+ * tombstone with its new version, so a read that started before the write cannot put the old
+ * row back after the write's eviction. Loads read from the primary.
+ */
+@Component
+public class UserCache {
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final Cache<Long, Entry> cache;
+
+    public UserCache(@Value("${shareit.cache.users.spec}") String spec, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.from(spec).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> get(long userId, Supplier<Optional<User>> loader) {
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null && !entry.tombstone) {
+            return Optional.of(entry.toUser(userId));
+        }
+        Optional<User> user = PrimaryReads.call(loader);
+        user.ifPresent(loaded -> put(userId, new Entry(version(loaded), false, loaded.getName(), loaded.getEmail())));
+        return user;
+    }
+
+    /**
+     * Call after the transaction that changed the user committed, with the version it wrote.
+     */
+    public void updated(long userId, Long version) {
+        put(userId, new Entry(version == null ? 0 : version, true, null, null));
+    }
+
+    /**
+     * Call after the transaction that deleted the user committed.
+     */
+    public void deleted(long userId) {
+        put(userId, new Entry(DELETED, true, null, null));
+    }
+
+    private void put(long userId, Entry entry) {
+        cache.asMap().compute(userId, (id, current) -> current == null || current.replacedBy(entry) ? entry : current);
+    }
+
+    private static long version(User user) {
+        return user.getVersion() == null ? 0 : user.getVersion();
+    }
+
+    @AllArgsConstructor
+    private static final class Entry {
+        private final long version;
+        private final boolean tombstone;
+        private final String name;
+        private final String email;
+
+        private boolean replacedBy(Entry other) {
+            return other.version > version || other.version == version && tombstone && !other.tombstone;
+        }
+
+        private User toUser(long userId) {
+            User user = new User();
+            user.setId(userId);
+            user.setName(name);
+            user.setEmail(email);
+            user.setVersion(version);
+            return user;
+        }
+    }
+}
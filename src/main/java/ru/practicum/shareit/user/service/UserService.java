@@ -4,12 +4,18 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface UserService {
     User save(User user);
 
     User findById(long userId);
 
+    /**
+     * Returns null when {@code notModified} accepts the entity tag of the user.
+     */
+    User findById(long userId, Predicate<String> notModified);
+
     List<User> findAll();
 
     User update(long userId, UserDto userDto);
@@ -1,84 +1,168 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.etag.EntityTags;
 import ru.practicum.shareit.exception.user.EmailAlreadyExistException;
 import ru.practicum.shareit.exception.user.UserNotFoundException;
+import ru.practicum.shareit.tracing.RequestTrace;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    /**
+     * Unique indexes on the email: the one on lower(email), and the older constraint on email itself,
+     * which fires first for an exact duplicate since stored emails are normalized.
+     */
+    private static final List<String> EMAIL_INDEXES = List.of("uq_users_email_lower", "uq_user_email");
+
     private final UserRepository userRepository;
+    private final EmailBloomFilter emailFilter;
+    private final UserCache userCache;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildEmailFilter() {
+        log.info("UserServiceImpl: rebuilding email filter");
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emailFilter.rebuild(emails.map(this::normalizeEmail));
+        }
+        log.info("UserServiceImpl: email filter rebuilt");
+    }
 
     @Override
     @Transactional
     public User save(User user) {
-        log.info("UserServiceImpl: attempting to save user with email: {}", user.getEmail());
-        if (isEmailExist(user.getEmail())) {
+        log.debug("UserServiceImpl: attempting to save user with email: {}", user.getEmail());
+        user.setEmail(normalizeEmail(user.getEmail()));
+        if (RequestTrace.step("emailCheck", () -> isEmailExist(user.getEmail()))) {
             log.warn("UserServiceImpl: email already exists: {}", user.getEmail());
             throw new EmailAlreadyExistException("Email: " + user.getEmail() + " already exist");
         }
-        User savedUser = userRepository.save(user);
-        log.info("UserServiceImpl: user saved successfully with email: {}", savedUser.getEmail());
+        User savedUser = RequestTrace.step("save", () -> saveAndFlush(user));
+        // added only once committed, so a rolled back insert leaves no permanent false positive; a concurrent
+        // insert of the same email in between is rejected by the unique index on lower(email)
+        afterCommit(() -> emailFilter.add(savedUser.getEmail()));
+        log.debug("UserServiceImpl: user saved successfully with email: {}", savedUser.getEmail());
         return savedUser;
     }
 
     @Override
     @Transactional(readOnly = true)
     public User findById(long userId) {
-        log.info("UserServiceImpl: attempting to find user with id: {}", userId);
+        log.debug("UserServiceImpl: attempting to find user with id: {}", userId);
 
-        User user = userRepository.findById(userId).orElseThrow(() -> {
+        User user = userCache.get(userId, () -> RequestTrace.step("userQuery", () -> userRepository.findById(userId))).orElseThrow(() -> {
             log.warn("UserServiceImpl: user not found with id: {}", userId);
             return new UserNotFoundException("User with id " + userId + " not found");
         });
 
-        log.info("UserServiceImpl: successfully found user with id: {}", userId);
+        log.debug("UserServiceImpl: successfully found user with id: {}", userId);
+        return user;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findById(long userId, Predicate<String> notModified) {
+        User user = findById(userId);
+        if (notModified.test(EntityTags.of("user", userId, user.getVersion()))) {
+            log.debug("UserServiceImpl: user with id: {} not modified", userId);
+            return null;
+        }
         return user;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<User> findAll() {
-        log.info("UserServiceImpl: attempting to retrieve all users");
+        log.debug("UserServiceImpl: attempting to retrieve all users");
         List<User> users = userRepository.findAll();
 
-        log.info("UserServiceImpl: retrieved {} users", users.size());
+        log.debug("UserServiceImpl: retrieved {} users", users.size());
         return users;
     }
 
     @Override
     @Transactional
     public User update(long userId, UserDto userDto) {
-        log.info("UserServiceImpl: attempting to update user with id: {}", userId);
+        log.debug("UserServiceImpl: attempting to update user with id: {}", userId);
 
-        User user = userRepository.findById(userId)
+        User user = RequestTrace.step("userQuery", () -> userRepository.findById(userId))
                 .orElseThrow(() -> {
                     log.warn("UserServiceImpl: user not found with id: {}", userId);
                     return new UserNotFoundException("User with id " + userId + " not found");
                 });
 
-        log.info("UserServiceImpl: validating email for user with id: {}", userId);
+        log.debug("UserServiceImpl: validating email for user with id: {}", userId);
+        String oldEmail = user.getEmail();
+        userDto.setEmail(normalizeEmail(userDto.getEmail()));
         validateEmail(userDto.getEmail());
 
-        log.info("UserServiceImpl: updating details for user with id: {}", userId);
+        log.debug("UserServiceImpl: updating details for user with id: {}", userId);
         updateUserDetails(user, userDto);
 
-        User updatedUser = userRepository.save(user);
-        log.info("UserServiceImpl: successfully updated user with id: {}", userId);
+        User updatedUser = RequestTrace.step("save", () -> saveAndFlush(user));
+        afterCommit(() -> userCache.updated(userId, updatedUser.getVersion()));
+        if (userDto.getEmail() != null) {
+            String newEmail = userDto.getEmail();
+            afterCommit(() -> {
+                emailFilter.add(newEmail);
+                emailFilter.remove(oldEmail);
+            });
+        }
+        log.debug("UserServiceImpl: successfully updated user with id: {}", userId);
 
         return updatedUser;
     }
 
+    /**
+     * Flushes right away so that a concurrent insert of the same email, which passed the pre-check, is
+     * rejected by the unique index here and reported as a duplicate email rather than a server error.
+     */
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!violatesEmailIndex(e)) {
+                throw e;
+            }
+            log.warn("UserServiceImpl: email already exists: {}", user.getEmail());
+            throw new EmailAlreadyExistException("Email: " + user.getEmail() + " already exist");
+        }
+    }
+
+    private boolean violatesEmailIndex(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String name = cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (name != null && EMAIL_INDEXES.stream().anyMatch(name.toLowerCase(Locale.ROOT)::contains)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void validateEmail(String email) {
         if (email != null && isEmailExist(email)) {
             throw new EmailAlreadyExistException("Email: " + email + " already exist");
@@ -93,18 +177,39 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteById(long userId) {
-        log.info("UserServiceImpl: attempting to delete user with id: {}", userId);
+        log.debug("UserServiceImpl: attempting to delete user with id: {}", userId);
 
-        userRepository.findById(userId).orElseThrow(() -> {
+        User user = userRepository.findById(userId).orElseThrow(() -> {
             log.warn("UserServiceImpl: user not found with id: {}", userId);
             return new UserNotFoundException("User with id " + userId + " not found");
         });
 
         userRepository.deleteById(userId);
-        log.info("UserServiceImpl: successfully deleted user with id: {}", userId);
+        afterCommit(() -> {
+            userCache.deleted(userId);
+            emailFilter.remove(user.getEmail());
+        });
+        log.debug("UserServiceImpl: successfully deleted user with id: {}", userId);
     }
 
     private boolean isEmailExist(String email) {
-        return userRepository.findDistinctEmails().contains(email);
+        return emailFilter.mightContain(email) && userRepository.existsByEmail(email);
+    }
+
+    private String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
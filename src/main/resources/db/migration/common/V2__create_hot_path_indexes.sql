@@ -0,0 +1,12 @@
+-- bookings of a booker, newest first, with the (start, id) keyset used for paging
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker, start_date_time DESC, id DESC);
+
+-- WAITING / REJECTED lists of a booker
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker, status, start_date_time DESC);
+
+-- reservations of an owner's items, conflict checks and last/next booking lookups per item
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item, start_date_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner, id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1,3 @@
+-- anti-join of the date-range item search: probes an item's bookings overlapping a window
+-- without touching the table
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item, start_date_time, end_date_time, status);
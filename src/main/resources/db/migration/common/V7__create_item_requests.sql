@@ -0,0 +1,21 @@
+CREATE SEQUENCE IF NOT EXISTS item_requests_id_seq START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS item_requests
+(
+    id          INTEGER PRIMARY KEY,
+    description VARCHAR(512) NOT NULL,
+    requestor   INTEGER      NOT NULL,
+    created     TIMESTAMP    NOT NULL,
+
+    CONSTRAINT fk_requestor FOREIGN KEY (requestor) REFERENCES users (id)
+);
+
+-- own requests and the feed of everyone else's, newest first, with the (created, id) keyset used for paging
+CREATE INDEX IF NOT EXISTS idx_item_requests_requestor_created ON item_requests (requestor, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_item_requests_created ON item_requests (created DESC, id DESC);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS request_id INTEGER;
+ALTER TABLE items ADD CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES item_requests (id);
+
+-- answers of a page of requests, loaded in one batch
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
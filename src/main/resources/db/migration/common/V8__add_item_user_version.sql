@@ -0,0 +1,3 @@
+-- optimistic locking versions, also used to build ETags for conditional GETs
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- H2 SERIAL columns use internal identity sequences, so the sequences Hibernate allocates ids from are
+-- created separately. H2 is only used for fresh in-memory databases, so the blocks start at 1.
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq START WITH 50 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_id_seq START WITH 50 INCREMENT BY 50;
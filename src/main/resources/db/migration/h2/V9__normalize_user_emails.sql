@@ -0,0 +1,9 @@
+-- Emails are stored trimmed and in lower case since the uniqueness check works on the normalized value.
+UPDATE users u
+SET email = LOWER(TRIM(u.email))
+WHERE u.email <> LOWER(TRIM(u.email))
+  AND NOT EXISTS (SELECT 1 FROM users o WHERE o.id <> u.id AND LOWER(TRIM(o.email)) = LOWER(TRIM(u.email)));
+
+-- H2 has no expression indexes, so the case-insensitive uniqueness is enforced through a generated column.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(email));
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_lower ON users (email_lower);
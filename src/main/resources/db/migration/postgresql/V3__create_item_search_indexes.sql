@@ -0,0 +1,7 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING GIN (LOWER(name) gin_trgm_ops) WHERE available;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE available;
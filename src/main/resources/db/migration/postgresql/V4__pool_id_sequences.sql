@@ -0,0 +1,13 @@
+-- Hibernate reserves ids in blocks of 50 (pooled optimizer): nextval returns the upper end of the block.
+-- Restarting each sequence at max(id) + 50 makes the first block start right after the existing rows.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+
+ALTER SEQUENCE items_id_seq INCREMENT BY 50;
+SELECT setval('items_id_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 50, false);
+
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+SELECT setval('bookings_id_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 50, false);
+
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+SELECT setval('comments_id_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50, false);
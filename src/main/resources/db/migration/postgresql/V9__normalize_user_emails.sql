@@ -0,0 +1,10 @@
+-- Emails are stored trimmed and in lower case since the uniqueness check works on the normalized value.
+-- Rows written before that are normalized here, unless another account already uses the same address in a
+-- different case.
+UPDATE users u
+SET email = LOWER(TRIM(u.email))
+WHERE u.email <> LOWER(TRIM(u.email))
+  AND NOT EXISTS (SELECT 1 FROM users o WHERE o.id <> u.id AND LOWER(TRIM(o.email)) = LOWER(TRIM(u.email)));
+
+-- Fails while accounts that differ only in the case of their email remain; they have to be merged by hand.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_lower ON users (LOWER(email));
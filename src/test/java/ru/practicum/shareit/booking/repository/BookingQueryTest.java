@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BookingQueryTest {
+
+    @Test
+    void firstPageOfOwnerAllStartsFromTheNewestBooking() {
+        BookingQuery query = query(BookingQuery.Role.OWNER, BookingState.ALL, null);
+
+        assertSame(KeysetCursor.FIRST_DESCENDING, query.position());
+    }
+
+    @Test
+    void firstPageOfOtherOwnerListsStartsFromTheOldestBooking() {
+        BookingQuery query = query(BookingQuery.Role.OWNER, BookingState.FUTURE, null);
+
+        assertSame(KeysetCursor.FIRST_ASCENDING, query.position());
+    }
+
+    @Test
+    void firstPageOfBookerListsStartsFromTheNewestBooking() {
+        for (BookingState state : BookingState.values()) {
+            assertSame(KeysetCursor.FIRST_DESCENDING, query(BookingQuery.Role.BOOKER, state, null).position());
+        }
+    }
+
+    @Test
+    void givenCursorIsKept() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 0), 7L);
+
+        assertSame(cursor, query(BookingQuery.Role.OWNER, BookingState.ALL, cursor).position());
+    }
+
+    private static BookingQuery query(BookingQuery.Role role, BookingState state, KeysetCursor cursor) {
+        return BookingQuery.builder()
+                .role(role)
+                .userId(1L)
+                .state(state)
+                .cursor(cursor)
+                .limit(10)
+                .now(LocalDateTime.now())
+                .build();
+    }
+}
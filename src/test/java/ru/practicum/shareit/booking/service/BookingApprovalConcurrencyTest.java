@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Two owner clients answering the same booking at once: exactly one response wins, the other sees
+ * the booking as already processed.
+ */
+@SpringBootTest
+class BookingApprovalConcurrencyTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @RepeatedTest(5)
+    void onlyOneConcurrentResponseSucceeds() throws Exception {
+        User owner = user("owner");
+        Booking booking = waitingBooking(owner, user("booker"));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<Booking>> responses = new ArrayList<>();
+        try {
+            for (boolean approved : new boolean[]{true, false}) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return bookingService.responseToRequest(owner.getId(), booking.getId(), approved);
+                }));
+            }
+            start.countDown();
+
+            List<Booking> succeeded = new ArrayList<>();
+            List<Throwable> failed = new ArrayList<>();
+            for (Future<Booking> response : responses) {
+                try {
+                    succeeded.add(response.get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    failed.add(e.getCause());
+                }
+            }
+
+            assertEquals(1, succeeded.size());
+            assertEquals(1, failed.size());
+            assertInstanceOf(IllegalStateException.class, failed.get(0));
+            Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertEquals(succeeded.get(0).getStatus(), stored.getStatus());
+            assertEquals(1L, stored.getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Booking waitingBooking(User owner, User booker) {
+        Item item = new Item();
+        item.setName("drill");
+        item.setDescription("cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return bookingRepository.save(new Booking(start, start.plusDays(1), item, booker, BookingStatus.WAITING));
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@mail.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, 100);
+
+    @Test
+    void overlapUsesHalfOpenIntervals() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(interval(1L, 10L, 2, 4)));
+
+        assertTrue(index.hasOverlap(1L, day(3), day(5)));
+        assertTrue(index.hasOverlap(1L, day(1), day(3)));
+        assertFalse(index.hasOverlap(1L, day(4), day(6)));
+        assertFalse(index.hasOverlap(1L, day(0), day(2)));
+    }
+
+    @Test
+    void overlapSeesALongBookingThatStartedEarlier() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(
+                interval(1L, 10L, 1, 10), interval(1L, 11L, 2, 3)));
+
+        assertTrue(index.hasOverlap(1L, day(5), day(6)));
+    }
+
+    @Test
+    void gapsAreTheFreeStretchesBetweenBookings() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(
+                interval(1L, 10L, 2, 4), interval(1L, 11L, 3, 5), interval(1L, 12L, 7, 8)));
+
+        assertEquals(List.of("0-2", "5-7", "8-10"), gaps(index.freeIntervals(1L, day(0), day(10))));
+        assertEquals(List.of("5-6"), gaps(index.freeIntervals(1L, day(4), day(6))));
+    }
+
+    @Test
+    void eventsUpdateTheLoadedItem() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(interval(1L, 10L, 2, 4)));
+        index.hasOverlap(1L, day(0), day(1));
+
+        index.onBookingChanged(new BookingChangedEvent(10L, 1L, day(2), day(4), BookingStatus.REJECTED));
+        index.onBookingChanged(new BookingChangedEvent(11L, 1L, day(6), day(7), BookingStatus.WAITING));
+
+        assertFalse(index.hasOverlap(1L, day(2), day(4)));
+        assertTrue(index.hasOverlap(1L, day(6), day(7)));
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemId(eq(1L), any());
+    }
+
+    @Test
+    void preloadSkipsItemsChangedWhileItsQueryRan() {
+        when(bookingRepository.findActiveIntervalsByItemIds(anyCollection(), any())).thenAnswer(invocation -> {
+            index.onBookingChanged(new BookingChangedEvent(10L, 1L, day(2), day(4), BookingStatus.WAITING));
+            return List.of(interval(2L, 20L, 2, 4));
+        });
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(interval(1L, 10L, 2, 4)));
+
+        index.preload(List.of(1L, 2L));
+
+        assertTrue(index.hasOverlap(1L, day(3), day(5)));
+        assertTrue(index.hasOverlap(2L, day(3), day(5)));
+        verify(bookingRepository).findActiveIntervalsByItemId(eq(1L), any());
+        verify(bookingRepository, never()).findActiveIntervalsByItemId(eq(2L), any());
+    }
+
+    @Test
+    void aLoadOverlappingAnEventAnswersTheCallButIsNotCached() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenAnswer(invocation -> {
+            index.onBookingChanged(new BookingChangedEvent(11L, 1L, day(6), day(7), BookingStatus.WAITING));
+            return List.of(interval(1L, 10L, 2, 4), interval(1L, 11L, 6, 7));
+        });
+
+        assertTrue(index.hasOverlap(1L, day(6), day(7)));
+        assertTrue(index.hasOverlap(1L, day(2), day(3)));
+        verify(bookingRepository, times(2)).findActiveIntervalsByItemId(eq(1L), any());
+    }
+
+    @Test
+    void windowsBeforeTheHorizonAreCheckedInTheDatabase() {
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(interval(1L, 10L, 2, 4)));
+        when(bookingRepository.existsByItemAndPeriod(eq(1L), any(), any())).thenReturn(true);
+        LocalDateTime past = LocalDateTime.now().minusYears(1);
+
+        assertTrue(index.hasOverlap(1L, past, past.plusDays(1)));
+        verify(bookingRepository).existsByItemAndPeriod(1L, past, past.plusDays(1));
+    }
+
+    @Test
+    void addingAnIntervalDropsEndedOnes() {
+        LocalDateTime past = LocalDateTime.now().minusYears(1);
+        when(bookingRepository.findActiveIntervalsByItemId(eq(1L), any())).thenReturn(List.of(
+                new BookingIntervalDto(1L, 9L, past, past.plusDays(1)), interval(1L, 10L, 2, 4)));
+        index.hasOverlap(1L, day(0), day(1));
+
+        index.onBookingChanged(new BookingChangedEvent(11L, 1L, day(6), day(7), BookingStatus.WAITING));
+
+        assertEquals(List.of("0-2", "4-6", "7-10"), gaps(index.freeIntervals(1L, day(0), day(10))));
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemId(eq(1L), any());
+    }
+
+    private static BookingIntervalDto interval(long itemId, long bookingId, int startDay, int endDay) {
+        return new BookingIntervalDto(itemId, bookingId, day(startDay), day(endDay));
+    }
+
+    private static LocalDateTime day(int day) {
+        return DAY.plusDays(day);
+    }
+
+    private static List<String> gaps(List<FreeIntervalDto> gaps) {
+        return gaps.stream()
+                .map(gap -> DAY.until(gap.getStart(), ChronoUnit.DAYS) + "-"
+                        + DAY.until(gap.getEnd(), ChronoUnit.DAYS))
+                .toList();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The booking read endpoints are served by one projection query each, without loading entities. Approving
+ * a booking takes two: the guarded update, then the booking read back with its item and booker, since a
+ * JPQL update returns no rows and H2 has no {@code UPDATE ... RETURNING}.
+ */
+@SpringBootTest
+class BookingStatementCountTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Booking booking;
+
+    @BeforeEach
+    void seed() {
+        owner = user("owner");
+        booker = user("booker");
+        Item item = new Item();
+        item.setName("drill");
+        item.setDescription("cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(now.minusDays(1), now.plusDays(1), item, booker, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(now.plusDays(2), now.plusDays(3), item, booker, BookingStatus.REJECTED));
+        booking = bookingRepository.save(new Booking(now.plusDays(4), now.plusDays(5), item, booker, BookingStatus.WAITING));
+    }
+
+    @AfterEach
+    void unbind() {
+        SqlStatementCounter.unbind();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookerListIsOneStatement(BookingState state) {
+        AtomicInteger count = SqlStatementCounter.begin();
+
+        bookingService.findAllForUser(booker.getId(), state, null, null, null, 10);
+
+        assertEquals(1, count.get());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void reservationsAreOneStatement(BookingState state) {
+        AtomicInteger count = SqlStatementCounter.begin();
+
+        bookingService.findReservations(owner.getId(), state, null, null, null, 10);
+
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    void bookingByIdIsOneStatement() {
+        AtomicInteger count = SqlStatementCounter.begin();
+
+        bookingService.findBookingById(booker.getId(), booking.getId());
+
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    void approvalIsTwoStatements() {
+        AtomicInteger count = SqlStatementCounter.begin();
+
+        bookingService.responseToRequest(owner.getId(), booking.getId(), true);
+
+        assertEquals(2, count.get());
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@mail.com");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.datasource.DataSourcePools;
+import ru.practicum.shareit.exception.bulkhead.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DatabaseBulkheadTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readsUseReplicaPermitsWhileWritesAreFull() throws Exception {
+        Service service = proxy(bulkhead(pools(2)));
+        Future<?> write = holdWrite(service);
+
+        assertEquals("read", service.read());
+        assertThrows(BulkheadFullException.class, service::write);
+
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void readPermitsMatchReplicaPoolSizes() throws Exception {
+        Service service = proxy(bulkhead(pools(1)));
+        Future<?> read = executor.submit(() -> service.holdRead(entered, release));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, service::read);
+        service.write();
+
+        release.countDown();
+        read.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void readsSharePrimaryPermitsWithoutReplicas() throws Exception {
+        Service service = proxy(bulkhead(null));
+        Future<?> write = holdWrite(service);
+
+        assertThrows(BulkheadFullException.class, service::read);
+
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void readsRoutedToThePrimaryTradeTheirPermitForAWritePermit() throws Exception {
+        DatabaseBulkhead bulkhead = bulkhead(pools(1));
+        Service service = proxy(bulkhead);
+        Future<?> write = holdWrite(service);
+
+        assertThrows(BulkheadFullException.class, () -> service.readOnPrimary(bulkhead));
+
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        assertEquals("read", service.readOnPrimary(bulkhead));
+        assertEquals("read", service.read());
+    }
+
+    @Test
+    void nestedCallsReuseThePermit() {
+        Service target = new Service();
+        Service service = proxy(target, bulkhead(null));
+        target.self = service;
+
+        assertEquals("read", service.writeThenRead());
+    }
+
+    private Future<?> holdWrite(Service service) throws InterruptedException {
+        Future<?> write = executor.submit(() -> service.holdWrite(entered, release));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return write;
+    }
+
+    private static DatabaseBulkhead bulkhead(DataSourcePools pools) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<DataSourcePools> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(pools);
+        return new DatabaseBulkhead(1, 0, Duration.ofMillis(50), provider, new SimpleMeterRegistry());
+    }
+
+    private static DataSourcePools pools(int replicaPoolSize) {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getMaximumPoolSize()).thenReturn(replicaPoolSize);
+        return new DataSourcePools(mock(HikariDataSource.class), List.of(new DataSourcePools.Replica("replica-0", replica)));
+    }
+
+    private static Service proxy(DatabaseBulkhead bulkhead) {
+        return proxy(new Service(), bulkhead);
+    }
+
+    private static Service proxy(Service target, DatabaseBulkhead bulkhead) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(bulkhead);
+        return factory.getProxy();
+    }
+
+    static class Service {
+        Service self;
+
+        @Transactional
+        public void write() {
+        }
+
+        @Transactional
+        public void holdWrite(CountDownLatch entered, CountDownLatch release) {
+            await(entered, release);
+        }
+
+        @Transactional(readOnly = true)
+        public String read() {
+            return "read";
+        }
+
+        @Transactional(readOnly = true)
+        public void holdRead(CountDownLatch entered, CountDownLatch release) {
+            await(entered, release);
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnPrimary(DatabaseBulkhead bulkhead) {
+            bulkhead.primaryRead();
+            return "read";
+        }
+
+        @Transactional
+        public String writeThenRead() {
+            return self.read();
+        }
+
+        private static void await(CountDownLatch entered, CountDownLatch release) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadWriteRoutingDataSourceTest {
+    private final String primaryName = "primary-" + UUID.randomUUID();
+    private final String replicaName = "replica-" + UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger primaryReads = new AtomicInteger();
+    private final DataSourcePools pools = new DataSourcePools(pool(primaryName),
+            List.of(new DataSourcePools.Replica("replica-0", pool(replicaName))));
+    private final DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(pools, meterRegistry, primaryReads::incrementAndGet));
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final TransactionTemplate writes = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    private final TransactionTemplate reads = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    {
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void close() {
+        pools.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals(replicaName, database(reads));
+        assertEquals(1, connections("replica-0"));
+        assertEquals(0, primaryReads.get());
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        assertEquals(primaryName, database(writes));
+        assertEquals(0, connections("replica-0"));
+        assertEquals(0, primaryReads.get());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagQuery("SELECT 10");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(pools, properties, meterRegistry);
+
+        monitor.check();
+
+        assertFalse(pools.getReplicas().get(0).isHealthy());
+        assertEquals(primaryName, database(reads));
+        assertEquals(1, primaryReads.get());
+
+        properties.setLagQuery("SELECT 1");
+        monitor.check();
+
+        assertTrue(pools.getReplicas().get(0).isHealthy());
+        assertEquals(replicaName, database(reads));
+    }
+
+    @Test
+    void readsUnderThePrimaryHintGoToThePrimary() {
+        assertEquals(primaryName, PrimaryReads.call(() -> database(reads)));
+        assertEquals(1, primaryReads.get());
+        assertFalse(PrimaryReads.isRequired());
+        assertEquals(replicaName, database(reads));
+    }
+
+    private String database(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class))
+                .toLowerCase();
+    }
+
+    private double connections(String route) {
+        return meterRegistry.get("shareit.datasource.connections").tag("route", route).counter().count();
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesFilterTest {
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1), 100);
+
+    @Test
+    void readsAfterAWriteOfTheSameClientGoToThePrimary() throws Exception {
+        assertFalse(primary("GET", "1", 200));
+
+        primary("PATCH", "1", 200);
+
+        assertTrue(primary("GET", "1", 200));
+        assertFalse(primary("GET", "2", 200));
+        assertFalse(PrimaryReads.isRequired());
+    }
+
+    @Test
+    void failedWritesDoNotPinTheClient() throws Exception {
+        primary("POST", "1", 409);
+
+        assertFalse(primary("GET", "1", 200));
+    }
+
+    private boolean primary(String method, String userId, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/items");
+        request.addHeader("X-Sharer-User-Id", userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean required = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> {
+            required.set(PrimaryReads.isRequired());
+            response.setStatus(status);
+        });
+        return required.get();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EntityTagsTest {
+    @Test
+    void partsContainingTheOldSeparatorDoNotCollide() {
+        assertNotEquals(EntityTags.of("a|b", "c"), EntityTags.of("a", "b|c"));
+        assertNotEquals(EntityTags.of("ab", "c"), EntityTags.of("a", "bc"));
+    }
+
+    @Test
+    void nullDiffersFromTheWordNull() {
+        assertNotEquals(EntityTags.of("item", null), EntityTags.of("item", "null"));
+    }
+
+    @Test
+    void samePartsGiveTheSameTag() {
+        assertEquals(EntityTags.of("user", 1L, 3L), EntityTags.of("user", 1L, 3L));
+    }
+}
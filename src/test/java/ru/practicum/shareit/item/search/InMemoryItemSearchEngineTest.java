@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private static final LocalDateTime END = START.plusDays(1);
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository);
+    private final List<Collection<Long>> lookups = new ArrayList<>();
+
+    @BeforeEach
+    void index() {
+        List<ItemDto> items = new ArrayList<>();
+        LongStream.rangeClosed(1, 1200).forEach(id -> items.add(new ItemDto(id, "drill " + id, "cordless", true)));
+        items.add(new ItemDto(2000, "saw", "hand saw", true));
+        when(itemRepository.findAllItemDtos()).thenReturn(items);
+        engine.rebuild();
+        when(itemRepository.findItemIdsBookedBetween(any(), any(), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(2);
+            lookups.add(ids);
+            return Set.copyOf(ids.stream().filter(id -> id % 2 == 0).toList());
+        });
+    }
+
+    @Test
+    void skipsBookedItemsAndStopsOnceThePageIsFilled() {
+        List<ItemDto> page = engine.searchFreeBetween("drill", START, END, OffsetPageRequest.of(2, 3));
+
+        assertEquals(List.of(5L, 7L, 9L), page.stream().map(ItemDto::getId).toList());
+        assertEquals(1, lookups.size());
+    }
+
+    @Test
+    void unpagedSearchReturnsEveryMatch() {
+        assertEquals(1200, engine.search("drill", Pageable.unpaged()).size());
+        assertEquals(600, engine.searchFreeBetween("drill", START, END, Pageable.unpaged()).size());
+    }
+
+    @Test
+    void looksUpOnlyMatchingItemsInChunks() {
+        List<ItemDto> page = engine.searchFreeBetween("drill", START, END, OffsetPageRequest.of(0, 550));
+
+        assertEquals(550, page.size());
+        assertEquals(List.of(500, 500, 200), lookups.stream().map(Collection::size).toList());
+        assertTrue(lookups.stream().noneMatch(ids -> ids.contains(2000L)));
+    }
+}
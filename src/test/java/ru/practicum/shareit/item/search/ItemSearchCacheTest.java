@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ItemSearchCacheTest {
+    private final ItemSearchCache cache = new ItemSearchCache(100, Duration.ofMinutes(10),
+            new InMemoryItemSearchEngine(mock(ItemRepository.class)), new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void savingAnItemInvalidatesOnlyMatchingTexts() {
+        load("drill");
+        load("saw");
+
+        cache.onItemSaved(new ItemSavedEvent(item("Cordless Drill", "18V")));
+
+        load("drill");
+        load("saw");
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void theOldTextOfAnUpdatedItemIsInvalidatedToo() {
+        load("drill");
+
+        cache.onItemSaved(new ItemSavedEvent(item("Hammer", "heavy"), "Drill", "cordless"));
+
+        load("drill");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void aPageLoadedDuringAnInvalidationIsNotCached() {
+        cache.get("saw", OffsetPageRequest.of(0, 20), () -> {
+            loads.incrementAndGet();
+            cache.onItemSaved(new ItemSavedEvent(item("Hammer", "heavy")));
+            return List.of();
+        });
+
+        load("saw");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void postgresMatcherTreatsLikePatternsAsMatches() {
+        PostgresItemSearchEngine engine = new PostgresItemSearchEngine(mock(ItemRepository.class));
+
+        assertTrue(engine.matches("d_ill", "Hammer", "heavy"));
+        assertTrue(engine.matches("drill", "Cordless DRILL", null));
+        assertFalse(engine.matches("drill", "Hammer", null));
+    }
+
+    private void load(String text) {
+        cache.get(text, OffsetPageRequest.of(0, 20), () -> {
+            loads.incrementAndGet();
+            return List.<ItemDto>of();
+        });
+    }
+
+    private static Item item(String name, String description) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        return item;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDetailsRow;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemDetailsLoaderTest {
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2030, 1, 5, 12, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemDetailsLoader loader = new ItemDetailsLoader(itemRepository);
+
+    @Test
+    void staleAtIsTheEndOfTheRunningBookingWhenItComesFirst() {
+        when(itemRepository.findDetailsRows(eq(1L), any())).thenReturn(List.of(row(LATER, EARLIER, null)));
+
+        assertEquals(EARLIER, loader.load(1L).orElseThrow().getStaleAt());
+    }
+
+    @Test
+    void staleAtIsTheNextStartWhenItComesFirst() {
+        when(itemRepository.findDetailsRows(eq(1L), any())).thenReturn(List.of(row(EARLIER, LATER, null)));
+
+        assertEquals(EARLIER, loader.load(1L).orElseThrow().getStaleAt());
+    }
+
+    @Test
+    void staleAtIsNullWithoutUpcomingBookings() {
+        when(itemRepository.findDetailsRows(eq(1L), any())).thenReturn(List.of(row(null, null, null)));
+
+        assertNull(loader.load(1L).orElseThrow().getStaleAt());
+    }
+
+    @Test
+    void commentsCannotBeModified() {
+        when(itemRepository.findDetailsRows(eq(1L), any())).thenReturn(List.of(row(null, null, 5L), row(null, null, 6L)));
+
+        List<?> comments = loader.load(1L).orElseThrow().getItem().getComments();
+
+        assertEquals(2, comments.size());
+        assertThrows(UnsupportedOperationException.class, comments::clear);
+    }
+
+    private static ItemDetailsRow row(LocalDateTime nextBooking, LocalDateTime nextEnd, Long commentId) {
+        return new ItemDetailsRow(1L, 0L, "drill", "cordless drill", true, null, nextBooking, nextEnd, commentId,
+                commentId == null ? null : "fine", commentId == null ? null : "author", LocalDate.of(2030, 1, 1));
+    }
+}
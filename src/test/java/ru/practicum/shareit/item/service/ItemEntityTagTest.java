@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.user.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ItemEntityTagTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void seed() {
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner-" + UUID.randomUUID() + "@mail.com");
+        owner = userRepository.save(owner);
+        item = itemService.save(new ItemDto(0, "drill", "cordless drill", true), owner.getId());
+    }
+
+    @Test
+    void matchingTagReturnsNoBody() {
+        String tag = detailsTag();
+
+        assertNull(itemService.findById(item.getId(), tag::equals));
+        assertNull(itemService.allItemsFromUser(owner.getId(), Pageable.unpaged(), listTag()::equals));
+    }
+
+    @Test
+    void matchingListTagRunsOnlyTheVersionQuery() {
+        String tag = listTag();
+
+        AtomicInteger statements = SqlStatementCounter.begin();
+        try {
+            assertNull(itemService.allItemsFromUser(owner.getId(), Pageable.unpaged(), tag::equals));
+        } finally {
+            SqlStatementCounter.unbind();
+        }
+        assertEquals(1, statements.get());
+    }
+
+    @Test
+    void tagsChangeWithTheItem() {
+        String detailsTag = detailsTag();
+        String listTag = listTag();
+
+        UpdateItemDto update = new UpdateItemDto();
+        update.setName("hammer drill");
+        itemService.update(item.getId(), update, owner.getId());
+
+        assertNotNull(itemService.findById(item.getId(), detailsTag::equals));
+        assertNotEquals(detailsTag, detailsTag());
+        assertNotEquals(listTag, listTag());
+    }
+
+    @Test
+    void unknownOwnerIsNotFound() {
+        assertThrows(UserNotFoundException.class,
+                () -> itemService.allItemsFromUser(Long.MAX_VALUE, Pageable.unpaged(), tag -> false));
+    }
+
+    private String detailsTag() {
+        List<String> tags = new ArrayList<>();
+        itemService.findById(item.getId(), tags::add);
+        return tags.get(0);
+    }
+
+    private String listTag() {
+        List<String> tags = new ArrayList<>();
+        itemService.allItemsFromUser(owner.getId(), Pageable.unpaged(), tags::add);
+        return tags.get(0);
+    }
+}
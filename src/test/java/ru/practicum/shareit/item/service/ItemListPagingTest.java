@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemWithBookingDateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemListPagingTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner-" + UUID.randomUUID() + "@mail.com");
+        owner = userRepository.save(owner);
+        for (int i = 0; i < 25; i++) {
+            Item item = new Item();
+            item.setName("item " + i);
+            item.setDescription("description " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            itemIds.add(itemRepository.save(item).getId());
+        }
+    }
+
+    @Test
+    void unpagedReturnsAllItems() {
+        List<ItemWithBookingDateDto> items = itemService.allItemsFromUser(owner.getId(), Pageable.unpaged(), tag -> false);
+
+        assertEquals(itemIds, ids(items));
+    }
+
+    @Test
+    void offsetDoesNotHaveToBeAMultipleOfTheSize() {
+        List<ItemWithBookingDateDto> items = itemService.allItemsFromUser(owner.getId(), OffsetPageRequest.of(5, 10), tag -> false);
+
+        assertEquals(itemIds.subList(5, 15), ids(items));
+    }
+
+    private static List<Long> ids(List<ItemWithBookingDateDto> items) {
+        return items.stream().map(ItemWithBookingDateDto::getId).toList();
+    }
+}
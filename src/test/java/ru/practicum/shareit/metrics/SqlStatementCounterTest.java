@@ -0,0 +1,48 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlStatementCounterTest {
+    private final SqlStatementCounter counter = new SqlStatementCounter(new SimpleMeterRegistry());
+
+    @AfterEach
+    void unbind() {
+        SqlStatementCounter.unbind();
+    }
+
+    @Test
+    void countsStatementsOfTheBoundRequest() {
+        AtomicInteger count = SqlStatementCounter.begin();
+
+        counter.inspect("select 1");
+        counter.inspect("select 2");
+
+        assertEquals(2, count.get());
+        assertEquals(2, SqlStatementCounter.current());
+    }
+
+    @Test
+    void propagatedTaskAddsToTheSubmittingRequest() {
+        AtomicInteger count = SqlStatementCounter.begin();
+        counter.inspect("select 1");
+
+        Runnable task = SqlStatementCounter.propagate(() -> counter.inspect("select 2"));
+        CompletableFuture.runAsync(task).join();
+
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() {
+        counter.inspect("select 1");
+
+        assertEquals(0, SqlStatementCounter.current());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Explains the SQL shapes of the hot repository queries on the migrated schema and fails when one
+ * of them no longer goes through an index. H2 creates its own indexes for foreign keys, so lookups
+ * by a single foreign key column accept those as well.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+    private static final String NOW = "TIMESTAMP '2024-01-01 12:00:00'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookerListUsesBookerStartIndex() {
+        assertUsesIndex("SELECT b.id FROM bookings b WHERE b.booker = 1 "
+                        + "AND (b.start_date_time < " + NOW + " OR (b.start_date_time = " + NOW + " AND b.id < 5)) "
+                        + "ORDER BY b.start_date_time DESC, b.id DESC LIMIT 10",
+                "IDX_BOOKINGS_BOOKER_START");
+    }
+
+    @Test
+    void bookerStatusListUsesBookerStatusIndex() {
+        assertUsesIndex("SELECT b.id FROM bookings b WHERE b.booker = 1 AND b.status = 'WAITING' "
+                        + "ORDER BY b.start_date_time DESC, b.id DESC LIMIT 10",
+                "IDX_BOOKINGS_BOOKER_STATUS_START");
+    }
+
+    @Test
+    void ownerReservationsUseItemStartIndex() {
+        assertUsesIndex("SELECT b.id FROM bookings b JOIN items i ON i.id = b.item WHERE i.owner = 1 "
+                        + "AND b.start_date_time > " + NOW + " ORDER BY b.start_date_time, b.id LIMIT 10",
+                "IDX_BOOKINGS_ITEM_START", "IDX_BOOKINGS_ITEM_PERIOD");
+    }
+
+    @Test
+    void conflictCheckUsesItemPeriodIndex() {
+        assertUsesIndex("SELECT COUNT(*) FROM bookings b WHERE b.item = 1 "
+                        + "AND b.start_date_time < TIMESTAMP '2024-01-02 00:00:00' AND b.end_date_time > " + NOW + " "
+                        + "AND b.status <> 'REJECTED'",
+                "IDX_BOOKINGS_ITEM_START", "IDX_BOOKINGS_ITEM_PERIOD");
+    }
+
+    @Test
+    void lastBookingLookupUsesItemIndex() {
+        assertUsesIndex("SELECT MAX(b.start_date_time) FROM bookings b WHERE b.item = 1 AND b.end_date_time < " + NOW,
+                "IDX_BOOKINGS_ITEM_START", "IDX_BOOKINGS_ITEM_PERIOD");
+    }
+
+    @Test
+    void ownerItemsUseOwnerIndex() {
+        assertUsesIndex("SELECT i.id FROM items i WHERE i.owner = 1 ORDER BY i.id LIMIT 20",
+                "IDX_ITEMS_OWNER", "FK_OWNER");
+    }
+
+    @Test
+    void commentsOfItemsUseItemIndex() {
+        assertUsesIndex("SELECT c.id FROM comments c WHERE c.item_id IN (1, 2, 3)",
+                "IDX_COMMENTS_ITEM", "FK_COMMENT_ITEM");
+    }
+
+    @Test
+    void ownRequestsUseRequestorCreatedIndex() {
+        assertUsesIndex("SELECT r.id FROM item_requests r WHERE r.requestor = 1 "
+                        + "ORDER BY r.created DESC, r.id DESC LIMIT 10",
+                "IDX_ITEM_REQUESTS_REQUESTOR_CREATED");
+    }
+
+    @Test
+    void requestFeedUsesCreatedIndex() {
+        assertUsesIndex("SELECT r.id FROM item_requests r WHERE r.requestor <> 1 "
+                        + "AND (r.created < " + NOW + " OR (r.created = " + NOW + " AND r.id < 5)) "
+                        + "ORDER BY r.created DESC, r.id DESC LIMIT 10",
+                "IDX_ITEM_REQUESTS_CREATED");
+    }
+
+    @Test
+    void requestAnswersUseRequestIndex() {
+        assertUsesIndex("SELECT i.id FROM items i WHERE i.request_id IN (1, 2)", "IDX_ITEMS_REQUEST");
+    }
+
+    @Test
+    void emailLookupUsesUniqueIndex() {
+        assertUsesIndex("SELECT u.id FROM users u WHERE u.email = 'user@mail.com'", "UQ_USER_EMAIL");
+    }
+
+    private void assertUsesIndex(String sql, String... indexes) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains("tableScan"), () -> "table scan in plan: " + plan);
+        assertTrue(Arrays.stream(indexes).anyMatch(index -> plan.contains("PUBLIC." + index)),
+                () -> "expected one of " + Arrays.toString(indexes) + " in plan: " + plan);
+    }
+}
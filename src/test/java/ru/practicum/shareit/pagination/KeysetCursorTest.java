@@ -0,0 +1,46 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.pagination.InvalidCursorException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodeReturnsTheEncodedPosition() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000), 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor.getTimestamp(), decoded.getTimestamp());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(LocalDateTime.of(2024, 5, 1, 12, 30), Long.MAX_VALUE).encode();
+
+        assertEquals(-1, encoded.indexOf('+'));
+        assertEquals(-1, encoded.indexOf('/'));
+        assertEquals(-1, encoded.indexOf('='));
+    }
+
+    @Test
+    void decodeRejectsGarbage() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("MjAyNHwx"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(""));
+    }
+
+    @Test
+    void firstDependsOnTheSortDirection() {
+        assertSame(KeysetCursor.FIRST_DESCENDING, KeysetCursor.first(true));
+        assertSame(KeysetCursor.FIRST_ASCENDING, KeysetCursor.first(false));
+    }
+}
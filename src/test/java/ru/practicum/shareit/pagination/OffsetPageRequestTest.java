@@ -0,0 +1,40 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffsetPageRequestTest {
+
+    @Test
+    void keepsAnOffsetThatIsNotAMultipleOfTheSize() {
+        OffsetPageRequest page = OffsetPageRequest.of(5, 10);
+
+        assertEquals(5, page.getOffset());
+        assertEquals(10, page.getPageSize());
+    }
+
+    @Test
+    void nextAndPreviousMoveByTheSize() {
+        OffsetPageRequest page = OffsetPageRequest.of(5, 10);
+
+        assertEquals(15, page.next().getOffset());
+        assertEquals(0, page.previousOrFirst().getOffset());
+        assertEquals(0, page.first().getOffset());
+    }
+
+    @Test
+    void pagingIsOptIn() {
+        assertTrue(OffsetPageRequest.ofOptional(null, null, 20).isUnpaged());
+        assertEquals(OffsetPageRequest.of(0, 5), OffsetPageRequest.ofOptional(null, 5, 20));
+        assertEquals(OffsetPageRequest.of(7, 20), OffsetPageRequest.ofOptional(7, null, 20));
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
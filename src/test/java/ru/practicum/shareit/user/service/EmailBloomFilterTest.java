@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void mightContainIsTrueUntilRebuilt() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+
+        assertTrue(filter.mightContain("user@mail.com"));
+    }
+
+    @Test
+    void neverReportsAnAddedEmailAsAbsent() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.rebuild(IntStream.range(0, 500).mapToObj(i -> "user" + i + "@mail.com"));
+        filter.add("new@mail.com");
+
+        IntStream.range(0, 500).forEach(i -> assertTrue(filter.mightContain("user" + i + "@mail.com")));
+        assertTrue(filter.mightContain("new@mail.com"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredProbability() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.rebuild(IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@mail.com"));
+
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain("other" + i + "@mail.com"))
+                .count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void removeForgetsTheEmailButKeepsTheOthers() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.rebuild(Stream.of("first@mail.com", "second@mail.com"));
+
+        filter.remove("first@mail.com");
+
+        assertFalse(filter.mightContain("first@mail.com"));
+        assertTrue(filter.mightContain("second@mail.com"));
+    }
+
+    @Test
+    void rebuildDropsPreviousEmails() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.rebuild(Stream.of("old@mail.com"));
+
+        filter.rebuild(Stream.of("new@mail.com"));
+
+        assertFalse(filter.mightContain("old@mail.com"));
+        assertTrue(filter.mightContain("new@mail.com"));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheTest {
+    private final UserCache cache = new UserCache("maximumSize=100", new SimpleMeterRegistry());
+
+    @Test
+    void hitsReturnAFreshCopy() {
+        cache.get(1L, () -> Optional.of(user(1L, "name", 0L)));
+
+        User first = cache.get(1L, Optional::empty).orElseThrow();
+        first.setName("changed");
+        User second = cache.get(1L, Optional::empty).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("name", second.getName());
+    }
+
+    @Test
+    void staleLoadDoesNotReplaceALaterUpdate() {
+        cache.get(1L, () -> Optional.of(user(1L, "old", 0L)));
+        cache.updated(1L, 1L);
+
+        // a read that started before the update committed returns the old row
+        cache.get(1L, () -> Optional.of(user(1L, "old", 0L)));
+        User loaded = cache.get(1L, () -> Optional.of(user(1L, "new", 1L))).orElseThrow();
+
+        assertEquals("new", loaded.getName());
+        assertEquals("new", cache.get(1L, Optional::empty).orElseThrow().getName());
+    }
+
+    @Test
+    void deletedUserIsNotCachedAgain() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, () -> Optional.of(user(1L, "name", 0L)));
+        cache.deleted(1L);
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.of(user(1L, "name", 0L));
+        });
+        Optional<User> afterDelete = cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(2, loads.get());
+        assertTrue(afterDelete.isEmpty());
+    }
+
+    private static User user(long id, String name, long version) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name + "@mail.com");
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.user.EmailAlreadyExistException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Emails written past the service, as by a concurrent request, are unknown to the email filter, so only
+ * the unique index on lower(email) catches the duplicate.
+ */
+@SpringBootTest
+class UserEmailConflictTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+
+    private String email;
+
+    @BeforeEach
+    void seed() {
+        email = "taken-" + UUID.randomUUID() + "@mail.com";
+        userRepository.saveAndFlush(user(email));
+    }
+
+    @Test
+    void saveReportsIndexViolationAsDuplicateEmail() {
+        assertThrows(EmailAlreadyExistException.class, () -> userService.save(user(email.toUpperCase())));
+    }
+
+    @Test
+    void updateReportsIndexViolationAsDuplicateEmail() {
+        User other = userService.save(user("other-" + UUID.randomUUID() + "@mail.com"));
+        UserDto update = new UserDto();
+        update.setEmail(email);
+
+        assertThrows(EmailAlreadyExistException.class, () -> userService.update(other.getId(), update));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setName("user");
+        user.setEmail(email);
+        return user;
+    }
+}